@@ -0,0 +1,54 @@
+// 기존 엔드포인트 읽기/쓰기 혼합 부하 (플랫폼 스레드 vs 가상 스레드 비교용)
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN;
+
+export const options = {
+  scenarios: {
+    mix: {
+      executor: 'constant-arrival-rate',
+      rate: Number(__ENV.RATE || 200),
+      timeUnit: '1s',
+      duration: __ENV.DURATION || '2m',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const headers = { Authorization: `Bearer ${TOKEN}`, 'Content-Type': 'application/json' };
+
+function studyLogs(count) {
+  const sessionId = `${Date.now()}-${__VU}-${__ITER}`;
+  const base = Date.now() - count * 60000;
+  const logs = [];
+  for (let i = 0; i < count; i++) {
+    logs.push({
+      subjectName: 'loadtest',
+      sessionId,
+      intervalType: i % 2 === 0 ? 'STUDY' : 'BREAK',
+      durationSeconds: 60,
+      startTime: new Date(base + i * 60000).toISOString(),
+      endTime: new Date(base + (i + 1) * 60000).toISOString(),
+    });
+  }
+  return JSON.stringify(logs);
+}
+
+export default function () {
+  const r = Math.random();
+  let res;
+  if (r < 0.4) {
+    res = http.get(`${BASE_URL}/api/subjects`, { headers, tags: { name: 'GET /api/subjects' } });
+  } else if (r < 0.7) {
+    res = http.get(`${BASE_URL}/me`, { headers, tags: { name: 'GET /me' } });
+  } else if (r < 0.9) {
+    res = http.get(`${BASE_URL}/api/logs/study?limit=100`, { headers, tags: { name: 'GET /api/logs/study' } });
+  } else {
+    res = http.post(`${BASE_URL}/api/logs/study`, studyLogs(20), { headers, tags: { name: 'POST /api/logs/study' } });
+  }
+  check(res, { 'status is 2xx': (x) => x.status >= 200 && x.status < 300 });
+}
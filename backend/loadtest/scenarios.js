@@ -0,0 +1,172 @@
+// 시나리오별 부하 테스트 (loadtest 프로필 서버 대상, Firebase 불필요)
+// - login:    처음 보는 토큰으로 GET /me (토큰 검증 + users INSERT), 이후 같은 토큰 재사용 (캐시 적중)
+// - subjects: 과목 추가 -> 수정 -> 목록 -> 삭제
+// - ingest:   POST /api/logs/study 대량 저장 (요청당 INGEST_BATCH개)
+// - history:  GET /api/logs/study 키셋 페이지를 끝까지 (setup에서 HISTORY_LOGS개씩 미리 저장)
+// 시나리오는 SCENARIOS 환경 변수로 골라서 실행할 수 있다 (예: -e SCENARIOS=ingest,history)
+import http from 'k6/http';
+import exec from 'k6/execution';
+import { check, fail } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const DURATION = __ENV.DURATION || '2m';
+const RUN_ID = __ENV.RUN_ID || `${Date.now()}`;
+const USERS = Number(__ENV.USERS || 200);
+const LOGIN_USERS = Number(__ENV.LOGIN_USERS || 2000);
+const HISTORY_USERS = Number(__ENV.HISTORY_USERS || 20);
+const HISTORY_LOGS = Number(__ENV.HISTORY_LOGS || 5000);
+const INGEST_BATCH = Number(__ENV.INGEST_BATCH || 200);
+const PAGE_SIZE = Number(__ENV.PAGE_SIZE || 500);
+
+const ALL_SCENARIOS = {
+  login: {
+    executor: 'constant-arrival-rate',
+    exec: 'login',
+    rate: Number(__ENV.LOGIN_RATE || 50),
+    timeUnit: '1s',
+    duration: DURATION,
+    preAllocatedVUs: 50,
+    maxVUs: 500,
+  },
+  subjects: {
+    executor: 'constant-vus',
+    exec: 'subjects',
+    vus: Number(__ENV.SUBJECT_VUS || 20),
+    duration: DURATION,
+  },
+  ingest: {
+    executor: 'constant-arrival-rate',
+    exec: 'ingest',
+    rate: Number(__ENV.INGEST_RATE || 20),
+    timeUnit: '1s',
+    duration: DURATION,
+    preAllocatedVUs: 50,
+    maxVUs: 500,
+  },
+  history: {
+    executor: 'constant-vus',
+    exec: 'history',
+    vus: Number(__ENV.HISTORY_VUS || 5),
+    duration: DURATION,
+  },
+};
+
+const selected = (__ENV.SCENARIOS || Object.keys(ALL_SCENARIOS).join(',')).split(',');
+
+export const options = {
+  scenarios: Object.fromEntries(selected.map((name) => [name, ALL_SCENARIOS[name]])),
+  setupTimeout: '10m',
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    'http_req_duration{name:GET /me (login)}': ['p(95)<300'],
+    'http_req_duration{name:POST /api/subjects}': ['p(95)<300'],
+    'http_req_duration{name:POST /api/logs/study}': ['p(95)<1000'],
+    'http_req_duration{name:GET /api/logs/study (page)}': ['p(95)<500'],
+  },
+};
+
+function issueTokens(users, uidPrefix) {
+  const tokens = [];
+  for (let start = 0; start < users; start += 10000) {
+    const res = http.post(`${BASE_URL}/loadtest/tokens`,
+      JSON.stringify({ users: Math.min(10000, users - start), uidPrefix: `${uidPrefix}${start}-` }),
+      { headers: { 'Content-Type': 'application/json' }, tags: { name: 'setup' } });
+    if (res.status !== 200) fail(`token issue failed: ${res.status} (is the server running with --spring.profiles.active=loadtest?)`);
+    tokens.push(...res.json().map((t) => t.token));
+  }
+  return tokens;
+}
+
+function headers(token) {
+  return { Authorization: `Bearer ${token}`, 'Content-Type': 'application/json' };
+}
+
+function studyLogs(count, sessionId, startMillis) {
+  const logs = [];
+  for (let i = 0; i < count; i++) {
+    logs.push({
+      subjectName: `subject-${i % 5}`,
+      sessionId,
+      intervalType: i % 4 === 3 ? 'BREAK' : 'STUDY',
+      durationSeconds: 60,
+      startTime: new Date(startMillis + i * 60000).toISOString(),
+      endTime: new Date(startMillis + (i + 1) * 60000).toISOString(),
+    });
+  }
+  return logs;
+}
+
+export function setup() {
+  const data = {
+    users: issueTokens(USERS, `lt-${RUN_ID}-u`),
+    loginUsers: selected.includes('login') ? issueTokens(LOGIN_USERS, `lt-${RUN_ID}-login`) : [],
+    historyUsers: [],
+  };
+  if (selected.includes('history')) {
+    data.historyUsers = issueTokens(HISTORY_USERS, `lt-${RUN_ID}-h`);
+    // 지난 기록을 미리 채워 둔다 (한 사용자당 HISTORY_LOGS개, 1분 간격)
+    const since = Date.now() - HISTORY_LOGS * 60000 - 86400000;
+    data.historyUsers.forEach((token, u) => {
+      for (let i = 0; i < HISTORY_LOGS; i += 500) {
+        const body = studyLogs(Math.min(500, HISTORY_LOGS - i), `seed-${u}-${i}`, since + i * 60000);
+        const res = http.post(`${BASE_URL}/api/logs/study`, JSON.stringify(body), { headers: headers(token), tags: { name: 'setup' } });
+        if (res.status >= 300) fail(`seeding failed: ${res.status} ${res.body}`);
+      }
+    });
+  }
+  return data;
+}
+
+export function login(data) {
+  // 반복마다 다른 사용자 (풀을 다 쓰면 처음부터 다시: 그때부터는 토큰 캐시 적중)
+  const token = data.loginUsers[exec.scenario.iterationInTest % data.loginUsers.length];
+  const res = http.get(`${BASE_URL}/me`, { headers: headers(token), tags: { name: 'GET /me (login)' } });
+  check(res, { 'login 2xx': (r) => r.status === 200 });
+}
+
+export function subjects(data) {
+  const token = data.users[(exec.vu.idInTest - 1) % data.users.length];
+  const h = { headers: headers(token) };
+  const name = `s-${exec.vu.idInTest}-${exec.vu.iterationInScenario}`;
+
+  let res = http.post(`${BASE_URL}/api/subjects`, JSON.stringify({ name, color: 'FF0000' }),
+    { ...h, tags: { name: 'POST /api/subjects' } });
+  if (!check(res, { 'create 201': (r) => r.status === 201 })) return;
+  const id = res.json().id;
+
+  res = http.put(`${BASE_URL}/api/subjects/${id}`, JSON.stringify({ name: `${name}-r`, color: '00FF00' }),
+    { ...h, tags: { name: 'PUT /api/subjects/{id}' } });
+  check(res, { 'update 200': (r) => r.status === 200 });
+
+  res = http.get(`${BASE_URL}/api/subjects`, { ...h, tags: { name: 'GET /api/subjects' } });
+  check(res, { 'list 200': (r) => r.status === 200 });
+
+  res = http.del(`${BASE_URL}/api/subjects/${id}`, null, { ...h, tags: { name: 'DELETE /api/subjects/{id}' } });
+  check(res, { 'delete 204': (r) => r.status === 204 });
+}
+
+export function ingest(data) {
+  const token = data.users[exec.scenario.iterationInTest % data.users.length];
+  const sessionId = `ingest-${RUN_ID}-${exec.scenario.iterationInTest}`;
+  const body = studyLogs(INGEST_BATCH, sessionId, Date.now() - INGEST_BATCH * 60000);
+  const res = http.post(`${BASE_URL}/api/logs/study`, JSON.stringify(body),
+    { headers: headers(token), tags: { name: 'POST /api/logs/study' } });
+  check(res, { 'ingest 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
+
+export function history(data) {
+  const token = data.historyUsers[(exec.vu.idInTest - 1) % data.historyUsers.length];
+  let cursor = null;
+  let rows = 0;
+  do {
+    const query = cursor ? `limit=${PAGE_SIZE}&cursor=${encodeURIComponent(cursor)}` : `limit=${PAGE_SIZE}`;
+    const res = http.get(`${BASE_URL}/api/logs/study?${query}`,
+      { headers: headers(token), tags: { name: 'GET /api/logs/study (page)' } });
+    if (!check(res, { 'page 200': (r) => r.status === 200 })) return;
+    const page = res.json();
+    rows += page.items.length;
+    cursor = page.nextCursor;
+  } while (cursor);
+  check(rows, { 'full history read': (n) => n >= HISTORY_LOGS });
+}
@@ -0,0 +1,126 @@
+package com.stardylog.bench;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import com.stardylog.log.StudyLog;
+import com.stardylog.log.StudyLogBulkWriter;
+import com.stardylog.log.StudyLogRepository;
+import com.stardylog.subject.Subject;
+import com.stardylog.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// DB 왕복: 내장 H2(MySQL 호환 모드)에 대한 대량 INSERT와 키셋 페이지 조회
+// 운영 코드 경로 그대로 (StudyLogBulkWriter.write, StudyLogRepository.findPage). 스키마는 엔티티에서 생성
+// 대량 INSERT는 트랜잭션 안에서 쓰고 롤백한다 (측정값에 롤백 포함). 반복해도 테이블이 커지지 않아 회차마다 조건이 같다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudyLogRepositoryBenchmark {
+
+    private static final int READER_ROWS = 10_000;
+    private static final Instant FROM = Instant.parse("2025-03-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("9999-12-31T00:00:00Z");
+
+    ConfigurableApplicationContext context;
+    StudyLogRepository repository;
+    StudyLogBulkWriter writer;
+    TransactionTemplate transactionTemplate;
+    // 사용자별 change_version은 유일해야 한다 (StudyLogBulkWriter가 이 번호로 실제 INSERT된 행을 찾는다)
+    AtomicLong versionSeq = new AtomicLong();
+    AtomicLong sessionSeq = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop");
+        repository = context.getBean(StudyLogRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        writer = new StudyLogBulkWriter(jdbcTemplate, 500);
+
+        for (String uid : List.of("reader", "writer")) {
+            jdbcTemplate.update("insert into users (uid, change_seq, profile_seq, presence_visible) values (?, 0, 0, false)", uid);
+        }
+        for (long id = 1; id <= 8; id++) {
+            jdbcTemplate.update("insert into subjects (id, user_uid, name, sort_order, deleted, change_version) values (?, 'reader', ?, ?, false, ?)",
+                    id, "subject-" + id, (int) id, id);
+        }
+        transactionTemplate.executeWithoutResult(status -> writer.write(logs("reader", READER_ROWS)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int bulkInsert200() {
+        return transactionTemplate.execute(status -> {
+            int inserted = writer.write(logs("writer", 200)).size();
+            status.setRollbackOnly();
+            return inserted;
+        });
+    }
+
+    @Benchmark
+    public List<StudyLogResponse> keysetPage100() {
+        return repository.findPage("reader", FROM, TO, FROM, Long.MIN_VALUE, Limit.of(100));
+    }
+
+    private List<StudyLog> logs(String uid, int count) {
+        User user = User.builder().uid(uid).build();
+        String sessionId = "s-" + sessionSeq.incrementAndGet();
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        List<StudyLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            logs.add(StudyLog.builder()
+                    .user(user)
+                    .subject(Subject.builder().id((long) (i % 8) + 1).build())
+                    .sessionId(sessionId)
+                    .intervalType(i % 2 == 0 ? "STUDY" : "BREAK")
+                    .durationSeconds(1500)
+                    .startTime(base.plusSeconds(i * 1800L))
+                    .endTime(base.plusSeconds(i * 1800L + 1500))
+                    .changeVersion(versionSeq.incrementAndGet())
+                    .build());
+        }
+        return logs;
+    }
+
+    // JPA + study_logs 리포지토리만 (다른 빈/Flyway 없이). application.properties의 JPA 설정은 그대로 쓴다
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackages = "com.stardylog")
+    @EnableJpaRepositories(basePackageClasses = StudyLogRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = StudyLogRepository.class))
+    static class JpaConfig {
+    }
+}
@@ -0,0 +1,53 @@
+package com.stardylog.bench;
+
+import com.stardylog.api.dto.StudyLogRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// POST /api/logs/study 요청 검증: 1,000건 배치의 Bean Validation 비용
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudyLogRequestValidationBenchmark {
+
+    ValidatorFactory factory;
+    Validator validator;
+    List<StudyLogRequest> batch;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        batch = new ArrayList<>(1000);
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new StudyLogRequest("subject-" + (i % 8), "session-" + (i / 10),
+                    i % 2 == 0 ? "STUDY" : "BREAK", 1500,
+                    base.plusSeconds(i * 1800L), base.plusSeconds(i * 1800L + 1500)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public int validateBatch() {
+        int violations = 0;
+        for (StudyLogRequest req : batch) {
+            Set<ConstraintViolation<StudyLogRequest>> result = validator.validate(req);
+            violations += result.size();
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,57 @@
+package com.stardylog.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stardylog.api.dto.StudyLogResponse;
+import com.stardylog.log.StudyLog;
+import com.stardylog.subject.Subject;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/logs/study 응답 경로: 엔티티 -> StudyLogResponse 변환, 큰 목록의 JSON 직렬화
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudyLogResponseBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    List<StudyLog> logs;
+    List<StudyLogResponse> responses;
+    ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        // 애플리케이션과 같은 설정(JavaTimeModule 등)의 ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        logs = new ArrayList<>(size);
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < size; i++) {
+            logs.add(StudyLog.builder()
+                    .id((long) i)
+                    .subject(Subject.builder().id((long) (i % 8) + 1).name("subject-" + (i % 8)).build())
+                    .sessionId(String.valueOf(1_700_000_000_000L + i / 10))
+                    .intervalType(i % 2 == 0 ? "STUDY" : "BREAK")
+                    .durationSeconds(1500)
+                    .startTime(base.plusSeconds(i * 1800L))
+                    .endTime(base.plusSeconds(i * 1800L + 1500))
+                    .build());
+        }
+        responses = logs.stream().map(StudyLogResponse::new).toList();
+    }
+
+    @Benchmark
+    public List<StudyLogResponse> mapEntities() {
+        return logs.stream().map(StudyLogResponse::new).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
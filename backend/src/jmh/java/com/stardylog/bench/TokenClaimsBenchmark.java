@@ -0,0 +1,55 @@
+package com.stardylog.bench;
+
+import com.stardylog.security.VerifiedToken;
+import com.stardylog.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// FirebaseAuthFilter의 토큰 처리: 클레임 파싱, 검증 토큰 캐시 조회(SHA-256 키 계산 포함)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenClaimsBenchmark {
+
+    Map<String, Object> claims;
+    VerifiedTokenCache cache;
+    String idToken;
+
+    @Setup
+    public void setUp() {
+        long now = Instant.now().getEpochSecond();
+        // Firebase ID 토큰의 일반적인 클레임 구성
+        claims = Map.of(
+                "iss", "https://securetoken.google.com/stardylog",
+                "aud", "stardylog",
+                "auth_time", now,
+                "user_id", "u1234567890abcdefghijklmnop",
+                "sub", "u1234567890abcdefghijklmnop",
+                "iat", now,
+                "exp", now + 3600,
+                "email", "user@example.com",
+                "email_verified", true,
+                "firebase", Map.of(
+                        "identities", Map.of("google.com", List.of("1234567890"), "email", List.of("user@example.com")),
+                        "sign_in_provider", "google.com"));
+
+        cache = new VerifiedTokenCache(10_000);
+        // 실제 ID 토큰과 비슷한 길이(약 1KB)의 문자열
+        idToken = "eyJhbGciOiJSUzI1NiJ9." + "a".repeat(900) + ".signature";
+        cache.put(idToken, VerifiedToken.fromClaims("u1234567890abcdefghijklmnop", "user@example.com", claims));
+    }
+
+    @Benchmark
+    public VerifiedToken parseClaims() {
+        return VerifiedToken.fromClaims("u1234567890abcdefghijklmnop", "user@example.com", claims);
+    }
+
+    @Benchmark
+    public VerifiedToken cacheHit() {
+        return cache.get(idToken);
+    }
+}
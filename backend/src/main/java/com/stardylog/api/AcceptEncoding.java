@@ -0,0 +1,43 @@
+package com.stardylog.api;
+
+import java.util.Locale;
+
+// Accept-Encoding 해석 (RFC 9110 12.5.3): "gzip;q=0"이나 "*;q=0"은 gzip을 받지 않겠다는 뜻이다
+// gzip(x-gzip)이 직접 적혀 있으면 그 q 값, 없으면 "*"의 q 값으로 정한다. q 값을 읽을 수 없으면 받지 않는 것으로 본다
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    static boolean acceptsGzip(String header) {
+        if (header == null) return false;
+        double gzip = -1;
+        double any = -1;
+        for (String part : header.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = quality(params);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = Math.max(any, q);
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            int eq = param.indexOf('=');
+            if (eq < 0 || !param.substring(0, eq).trim().equalsIgnoreCase("q")) continue;
+            try {
+                double q = Double.parseDouble(param.substring(eq + 1).trim());
+                return q >= 0 && q <= 1 ? q : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.stardylog.api;
+
+import com.stardylog.api.dto.InsightsResponse;
+import com.stardylog.insights.InsightsService;
+import com.stardylog.insights.UserInsights;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+// 공부 인사이트 API: user_insights 한 행만 읽는다 (아직 계산 전이면 모두 0)
+@RestController
+@RequestMapping("/api/insights")
+@RequiredArgsConstructor
+public class InsightsController {
+
+    private final InsightsService insightsService;
+
+    @GetMapping("/me")
+    public InsightsResponse me(Authentication auth) {
+        String uid = (String) auth.getPrincipal();
+        UserInsights insights = insightsService.find(uid).orElseGet(() -> new UserInsights(uid));
+        return InsightsResponse.of(insights, LocalDate.now(insightsService.zone()));
+    }
+}
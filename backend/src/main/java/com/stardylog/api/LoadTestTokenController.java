@@ -0,0 +1,34 @@
+package com.stardylog.api;
+
+import com.stardylog.api.dto.LoadTestTokenRequest;
+import com.stardylog.api.dto.LoadTestTokenResponse;
+import com.stardylog.security.LocalJwtTokenVerifier;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// loadtest 프로필 전용: k6 setup()에서 가상 사용자 토큰을 한 번에 받아 간다 (인증 없이 호출, SecurityConfig)
+@RestController
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestTokenController {
+
+    private final LocalJwtTokenVerifier tokenIssuer;
+
+    @PostMapping("/loadtest/tokens")
+    public List<LoadTestTokenResponse> issue(@RequestBody @Valid LoadTestTokenRequest request) {
+        String prefix = request.uidPrefix() == null || request.uidPrefix().isEmpty() ? "loadtest-" : request.uidPrefix();
+        List<LoadTestTokenResponse> tokens = new ArrayList<>(request.users());
+        for (int i = 0; i < request.users(); i++) {
+            String uid = prefix + i;
+            tokens.add(new LoadTestTokenResponse(uid, tokenIssuer.issue(uid, uid + "@loadtest.local")));
+        }
+        return tokens;
+    }
+}
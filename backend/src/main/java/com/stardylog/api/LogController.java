@@ -1,60 +1,312 @@
 package com.stardylog.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stardylog.api.dto.StudyLogBatchStatusResponse;
+import com.stardylog.api.dto.StudyLogPageResponse;
 import com.stardylog.api.dto.StudyLogRequest;
 import com.stardylog.api.dto.StudyLogResponse;
-import com.stardylog.log.StudyLog;
-import com.stardylog.log.StudyLogRepository;
-import com.stardylog.user.UserRepository;
+import com.stardylog.log.IdempotencyKeyCache;
+import com.stardylog.log.StudyLogBinaryCodec;
+import com.stardylog.log.StudyLogCursor;
+import com.stardylog.log.StudyLogExportFormat;
+import com.stardylog.log.StudyLogQueryService;
+import com.stardylog.log.StudyLogIngestQueue;
+import com.stardylog.log.StudyLogIngestService;
+import com.stardylog.log.StudyLogMetrics;
+import com.stardylog.user.UserVersionTracker;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
 
 @RestController
 @RequestMapping("/api/logs")
 @RequiredArgsConstructor
 public class LogController {
 
-    private final UserRepository userRepository;
-    private final StudyLogRepository studyLogRepository;
+    private final StudyLogIngestService studyLogIngestService;
+    private final StudyLogIngestQueue studyLogIngestQueue;
+    private final IdempotencyKeyCache idempotencyKeyCache;
+    private final StudyLogMetrics studyLogMetrics;
+    private final StudyLogQueryService studyLogQueryService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserVersionTracker versionTracker; // 조건부 GET (ETag)
+    // 같은 사용자·같은 버전·같은 조건의 동시 페이지 조회는 한 번만 읽는다
+    private final SingleFlight<PageKey, List<StudyLogResponse>> pageFlights = new SingleFlight<>();
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BINARY_ROWS = 100_000;
+    private static final int DEFAULT_EXPORT_CHUNK_ROWS = 100_000;
+    private static final int MAX_EXPORT_CHUNK_ROWS = 1_000_000;
+
+    // 같은 구간의 재전송은 한 번만 저장 (Idempotency-Key가 있으면 그 키의 이전 응답을 그대로 반환, 본문이 다르면 422)
+    // 비동기 모드(stardylog.ingest.async.enabled)에서는 큐에 넣고 202 + batchToken, 큐가 가득 차면 429
     @PostMapping("/study")
-    public ResponseEntity<Void> addStudyLogs(Authentication auth, @RequestBody @Valid List<StudyLogRequest> requests) {
+    public ResponseEntity<?> addStudyLogs(Authentication auth,
+                                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                          @RequestBody @Valid List<StudyLogRequest> requests) {
+        String uid = (String) auth.getPrincipal();
+        return accept(uid, idempotencyKey, requests);
+    }
+
+    // 바이너리 컬럼 포맷(StudyLogBinaryCodec) 본문 저장. Content-Encoding: gzip 지원
+    @PostMapping(value = "/study", consumes = StudyLogBinaryCodec.MEDIA_TYPE)
+    public ResponseEntity<?> addStudyLogsBinary(Authentication auth,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                InputStream body) throws IOException {
         String uid = (String) auth.getPrincipal();
-        var user = userRepository.findById(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        List<StudyLogRequest> requests;
+        try (InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body) {
+            requests = StudyLogBinaryCodec.readRequests(new BufferedInputStream(in), MAX_BINARY_ROWS);
+        } catch (IllegalArgumentException | EOFException | ZipException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed study log payload");
+        }
+        // JSON 경로의 @Valid와 같은 제약 검사
+        for (StudyLogRequest req : requests) {
+            if (!validator.validate(req).isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid study log");
+            }
+        }
+        return accept(uid, idempotencyKey, requests);
+    }
 
-        List<StudyLog> logsToSave = requests.stream().map(req ->
-                StudyLog.builder()
-                        .user(user)
-                        .sessionId(req.sessionId())
-                        .subjectName(req.subjectName())
-                        .intervalType(req.intervalType())
-                        .durationSeconds(req.durationSeconds())
-                        .startTime(req.startTime())
-                        .endTime(req.endTime())
-                        .build()
-        ).toList();
+    private ResponseEntity<?> accept(String uid, String idempotencyKey, List<StudyLogRequest> requests) {
+        studyLogMetrics.recordIngestBatch(requests.size());
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ingest(uid, requests);
+        }
+        if (idempotencyKey.length() > IdempotencyKeyCache.MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key too long");
+        }
+        // JSON/바이너리 어느 쪽으로 보내도 같은 기록이면 같은 본문으로 본다
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(requests);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return idempotencyKeyCache.getOrCompute(uid, idempotencyKey, body, () -> ingest(uid, requests));
+    }
 
-        studyLogRepository.saveAll(logsToSave);
+    // 비동기 저장 배치의 처리 상태
+    @GetMapping("/study/batches/{batchToken}")
+    public StudyLogBatchStatusResponse getBatchStatus(Authentication auth, @PathVariable String batchToken) {
+        String uid = (String) auth.getPrincipal();
+        StudyLogBatchStatusResponse status = studyLogIngestQueue.status(uid, batchToken);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Batch not found or expired");
+        }
+        return status;
+    }
 
-        return ResponseEntity.ok().build();
+    private ResponseEntity<?> ingest(String uid, List<StudyLogRequest> requests) {
+        if (!studyLogIngestQueue.isEnabled()) {
+            return ResponseEntity.ok(studyLogIngestService.ingest(uid, requests));
+        }
+        String token = studyLogIngestQueue.offer(uid, requests);
+        if (token == null) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Ingest queue is full, retry later");
+        }
+        return ResponseEntity.accepted().body(StudyLogBatchStatusResponse.queued(token, uid));
     }
 
+    // 기본 모드: 기간(from/to) 안의 기록을 DB 커서에서 읽어 JSON 배열로 바로 흘려보낸다 (전체를 힙에 올리지 않음)
+    // If-None-Match가 지금 버전과 같으면 DB를 읽지 않고 304
     @GetMapping("/study")
-    public List<StudyLogResponse> getStudyLogs(Authentication auth) {
+    public ResponseEntity<StreamingResponseBody> getStudyLogs(Authentication auth,
+                                                              WebRequest webRequest,
+                                                              @RequestParam(required = false) Instant from,
+                                                              @RequestParam(required = false) Instant to) {
         String uid = (String) auth.getPrincipal();
+        String etag = versionTracker.etag(uid, "logs");
+        if (webRequest.checkNotModified(etag)) return null;
+        Instant lower = from != null ? from : StudyLogQueryService.MIN_TIME;
+        Instant upper = to != null ? to : StudyLogQueryService.MAX_TIME;
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartArray();
+                long rows = studyLogQueryService.streamRange(uid, lower, upper, row -> {
+                    try {
+                        gen.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                gen.writeEndArray();
+                studyLogMetrics.recordReadResult(rows);
+            }
+        };
+        // 같은 URL이 Accept에 따라 바이너리 응답도 되므로 캐시가 둘을 구분하게 한다
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
 
-        List<StudyLog> logs = studyLogRepository.findByUserUid(uid);
+    // 바이너리 컬럼 포맷으로 스트리밍 (Accept: application/x-stardylog-logs). Accept-Encoding이 gzip을 받으면 압축
+    @GetMapping(value = "/study", produces = StudyLogBinaryCodec.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> getStudyLogsBinary(Authentication auth,
+                                                                    WebRequest webRequest,
+                                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                    @RequestParam(required = false) Instant from,
+                                                                    @RequestParam(required = false) Instant to) {
+        String uid = (String) auth.getPrincipal();
+        Instant lower = from != null ? from : StudyLogQueryService.MIN_TIME;
+        Instant upper = to != null ? to : StudyLogQueryService.MAX_TIME;
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        // 강한 ETag는 바이트 단위로 같은 응답에만: 압축 여부마다 다르게
+        String etag = versionTracker.etag(uid, gzip ? "logs-bin-gz" : "logs-bin");
+        if (webRequest.checkNotModified(etag)) return null;
 
-        return logs.stream()
-                .map(StudyLogResponse::new)
-                .collect(Collectors.toList());
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : new BufferedOutputStream(out, 8192);
+            try (target; StudyLogBinaryCodec.Writer writer = StudyLogBinaryCodec.writer(target, true)) {
+                long rows = studyLogQueryService.streamRange(uid, lower, upper, row -> {
+                    try {
+                        writer.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                studyLogMetrics.recordReadResult(rows);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(StudyLogBinaryCodec.MEDIA_TYPE))
+                .eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
+
+    // 내보내기: csv / ndjson / binary 로 chunkRows행씩 스트리밍. Accept-Encoding이 gzip을 받으면 압축
+    // 받은 행이 chunkRows보다 적으면 끝. 다음 조각이나 끊긴 다운로드는 마지막으로 받은 행의 (startTime, id)로
+    // 만든 cursor로 이어받는다 (모든 형식에 id와 startTime이 들어 있다)
+    @GetMapping("/study/export")
+    public ResponseEntity<StreamingResponseBody> exportStudyLogs(Authentication auth,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                 @RequestParam(defaultValue = "csv") String format,
+                                                                 @RequestParam(required = false) Instant from,
+                                                                 @RequestParam(required = false) Instant to,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "" + DEFAULT_EXPORT_CHUNK_ROWS) int chunkRows) {
+        String uid = (String) auth.getPrincipal();
+        StudyLogExportFormat exportFormat;
+        try {
+            exportFormat = StudyLogExportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be one of csv, ndjson, binary");
+        }
+        if (chunkRows < 1 || chunkRows > MAX_EXPORT_CHUNK_ROWS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "chunkRows must be between 1 and " + MAX_EXPORT_CHUNK_ROWS);
+        }
+        StudyLogCursor after = null;
+        if (cursor != null) {
+            try {
+                after = StudyLogCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        Instant lower = from != null ? from : StudyLogQueryService.MIN_TIME;
+        Instant upper = to != null ? to : StudyLogQueryService.MAX_TIME;
+        StudyLogCursor resumeAfter = after;
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : new BufferedOutputStream(out, 8192);
+            try (StudyLogExportFormat.RowWriter writer = exportFormat.open(target, objectMapper, false)) {
+                long rows = studyLogQueryService.streamRange(uid, lower, upper, resumeAfter, chunkRows, row -> {
+                    try {
+                        writer.write(uid, row);
+                        return true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                studyLogMetrics.recordReadResult(rows);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"study-logs." + exportFormat.extension() + "\"")
+                .header("X-Export-Chunk-Rows", Integer.toString(chunkRows))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // 페이지 모드(limit 지정 시): (startTime, id) 키셋 페이지네이션, 다음 페이지는 nextCursor로 요청
+    @GetMapping(value = "/study", params = "limit")
+    public ResponseEntity<StudyLogPageResponse> getStudyLogPage(Authentication auth,
+                                                                WebRequest webRequest,
+                                                                @RequestParam(required = false) Instant from,
+                                                                @RequestParam(required = false) Instant to,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam int limit) {
+        String uid = (String) auth.getPrincipal();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        StudyLogCursor after = null;
+        if (cursor != null) {
+            try {
+                after = StudyLogCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        String etag = versionTracker.etag(uid, "logs-page");
+        if (webRequest.checkNotModified(etag)) return null;
+
+        Instant lower = from != null ? from : StudyLogQueryService.MIN_TIME;
+        Instant upper = to != null ? to : StudyLogQueryService.MAX_TIME;
+        StudyLogCursor pageAfter = after;
+        List<StudyLogResponse> items = pageFlights.execute(new PageKey(uid, etag, lower, upper, pageAfter, limit),
+                () -> studyLogQueryService.findPage(uid, lower, upper, pageAfter, limit));
+
+        studyLogMetrics.recordReadResult(items.size());
+
+        String nextCursor = null;
+        if (items.size() == limit) {
+            StudyLogResponse last = items.get(items.size() - 1);
+            nextCursor = new StudyLogCursor(last.startTime(), last.id()).encode();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .body(new StudyLogPageResponse(items, nextCursor));
+    }
+
+    private record PageKey(String uid, String etag, Instant from, Instant to, StudyLogCursor after, int limit) {}
 }
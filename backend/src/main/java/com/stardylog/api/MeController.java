@@ -1,45 +1,110 @@
 package com.stardylog.api;
 
+import com.stardylog.api.dto.DisplayNameAvailabilityResponse;
 import com.stardylog.api.dto.DisplayNameRequest;
 import com.stardylog.api.dto.MeResponse;
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.DisplayNameIndex;
 import com.stardylog.user.User;
 import com.stardylog.user.UserRepository;
+import com.stardylog.user.UserVersionTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+import java.util.regex.Pattern;
 
 @RestController
 @RequiredArgsConstructor
 public class MeController {
+    // DisplayNameRequest와 같은 규칙
+    private static final Pattern DISPLAY_NAME = Pattern.compile("^[a-zA-Z0-9가-힣_]{2,20}$");
+    private static final int SUGGESTIONS = 5;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final UserRepository userRepository;
+    private final DisplayNameIndex displayNameIndex; // 사용 중인 닉네임 (메모리)
+    private final UserVersionTracker versionTracker; // 조건부 GET (ETag)
+    private final ChangeVersionAllocator changeVersionAllocator;
+    private final TransactionTemplate transactionTemplate;
+    // 같은 사용자·같은 버전의 동시 /me 조회는 한 번만 읽는다
+    private final SingleFlight<String, MeResponse> meFlights = new SingleFlight<>();
 
     @GetMapping("/health")
     public String health() {return "ok"; }
 
+    // If-None-Match가 지금 프로필 버전과 같으면 DB 조회 없이 304
+    // lastLoginAt은 ETag에 넣지 않는다 (로그인마다 바뀌므로): 304면 클라이언트가 가진 이전 값을 그대로 쓴다
     @GetMapping("/me")
-    public MeResponse me(Authentication auth) { // [!] 반환 타입을 Object -> MeResponse 로 변경
+    public ResponseEntity<MeResponse> me(Authentication auth, WebRequest request) {
         String uid = (String) auth.getPrincipal();
-        User user = userRepository.findById(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        return MeResponse.fromEntity(user); // [!] 엔티티를 DTO로 변환하여 반환
+        String etag = versionTracker.profileEtag(uid);
+        if (request.checkNotModified(etag)) return null;
+        MeResponse body = meFlights.execute(uid + etag, () -> {
+            User user = userRepository.findById(uid)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+            return MeResponse.fromEntity(user); // [!] 엔티티를 DTO로 변환하여 반환
+        });
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(body);
     }
 
     @PostMapping("/me/display-name")
     public MeResponse setDisplayName(Authentication auth, @RequestBody @Valid DisplayNameRequest req) { // [!] 반환 타입을 User -> MeResponse 로 변경
         String uid = (String) auth.getPrincipal();
-        if (userRepository.existsByDisplayName(req.displayName())) {
+        // 메모리 색인에 없으면 DB 중복 확인 없이 바로 저장 (다른 노드에서 막 쓴 이름은 유니크 인덱스가 막는다)
+        if (displayNameIndex.isTaken(req.displayName()) && userRepository.existsByDisplayName(req.displayName())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 사용 중인 닉네임입니다.");
+        }
+        // 닉네임 UPDATE와 프로필 번호(/me ETag)를 한 트랜잭션으로. 엔티티 전체가 아니라 display_name만 쓴다
+        // (사용자 행을 잠그고 읽으므로 이전 닉네임이 정확하고, 그 사이 다른 컬럼이 바뀌어도 덮어쓰지 않는다)
+        User u;
+        try {
+            u = transactionTemplate.execute(status -> {
+                User user = userRepository.findByIdForUpdate(uid)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+                userRepository.updateDisplayName(uid, req.displayName()); // 유니크 인덱스 위반을 여기서 확인
+                changeVersionAllocator.touchProfile(uid);
+                return user;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 색인에 아직 보이지 않던 다른 사용자의 닉네임 (다음 확인부터는 색인이 답한다)
+            displayNameIndex.changed(null, req.displayName());
             throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 사용 중인 닉네임입니다.");
         }
-        User u = userRepository.findById(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        String oldName = u.getDisplayName();
+        u.setDisplayName(req.displayName()); // 트랜잭션이 끝난(분리된) 엔티티라 응답에만 반영된다
+        displayNameIndex.changed(oldName, req.displayName());
 
-        u.setDisplayName(req.displayName());
-        User savedUser = userRepository.save(u); // 일단 저장
+        return MeResponse.fromEntity(u); // [!] 저장된 엔티티를 DTO로 변환하여 반환
+    }
 
-        return MeResponse.fromEntity(savedUser); // [!] 저장된 엔티티를 DTO로 변환하여 반환
+    // 닉네임 입력 중 중복 확인 (DB 조회 없음). 사용 중이면 추천 닉네임도 함께
+    @GetMapping("/me/display-name/availability")
+    public DisplayNameAvailabilityResponse displayNameAvailability(@RequestParam String name) {
+        if (!DISPLAY_NAME.matcher(name).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "닉네임은 2~20자의 한글/영문/숫자/밑줄만 가능합니다.");
+        }
+        if (!displayNameIndex.isTaken(name)) {
+            return new DisplayNameAvailabilityResponse(name, true, List.of());
+        }
+        return new DisplayNameAvailabilityResponse(name, false, displayNameIndex.suggest(name, SUGGESTIONS));
+    }
+
+    // 닉네임 자동 완성 (접두어로 시작하는 사용 중인 닉네임, 사전 순)
+    @GetMapping("/users/display-names")
+    public List<String> searchDisplayNames(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "prefix is required and limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return displayNameIndex.searchPrefix(prefix, limit);
     }
 }
@@ -0,0 +1,87 @@
+package com.stardylog.api;
+
+import com.stardylog.api.dto.PresenceRequest;
+import com.stardylog.api.dto.PresenceResponse;
+import com.stardylog.api.dto.PresenceVisibilityRequest;
+import com.stardylog.presence.PresenceService;
+import com.stardylog.presence.PresenceVisibility;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// 공부 중 표시: 앱은 세션 동안 heartbeat를 ttl(기본 90초)보다 짧은 간격으로 보낸다
+// 조회/구독은 본인과 공부 중 표시를 공개한 사용자만 (그 외 uid는 응답에서 빠진다). 단일 노드 전용 (PresenceService)
+@RestController
+@RequestMapping("/api/presence")
+@RequiredArgsConstructor
+public class PresenceController {
+
+    private static final int MAX_UIDS = 200;
+
+    private final PresenceService presenceService;
+    private final PresenceVisibility presenceVisibility;
+
+    @PostMapping("/start")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void start(Authentication auth, @RequestBody @Valid PresenceRequest req) {
+        presenceService.heartbeat((String) auth.getPrincipal(), req.sessionId());
+    }
+
+    @PostMapping("/heartbeat")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void heartbeat(Authentication auth, @RequestBody @Valid PresenceRequest req) {
+        presenceService.heartbeat((String) auth.getPrincipal(), req.sessionId());
+    }
+
+    @PostMapping("/stop")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void stop(Authentication auth, @RequestBody @Valid PresenceRequest req) {
+        presenceService.stop((String) auth.getPrincipal(), req.sessionId());
+    }
+
+    // 내 공부 중 표시를 다른 사용자에게 공개/비공개 (기본 비공개)
+    @PutMapping("/visibility")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void setVisibility(Authentication auth, @RequestBody @Valid PresenceVisibilityRequest req) {
+        presenceVisibility.set((String) auth.getPrincipal(), req.visible());
+    }
+
+    @GetMapping
+    public List<PresenceResponse> snapshot(Authentication auth, @RequestParam List<String> uids) {
+        return presenceService.snapshot(permitted(auth, uids));
+    }
+
+    // SSE: 처음에 snapshot 이벤트, 이후 상태가 바뀔 때마다 presence 이벤트 (바뀐 사용자 목록)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication auth, @RequestParam List<String> uids) {
+        Set<String> permitted = permitted(auth, uids);
+        if (permitted.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "None of the requested users share their presence");
+        }
+        return presenceService.subscribe((String) auth.getPrincipal(), permitted);
+    }
+
+    private Set<String> permitted(Authentication auth, List<String> uids) {
+        return presenceVisibility.permitted((String) auth.getPrincipal(), validate(uids));
+    }
+
+    private static Set<String> validate(List<String> uids) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String uid : uids) {
+            if (!uid.isBlank()) distinct.add(uid.trim());
+        }
+        if (distinct.isEmpty() || distinct.size() > MAX_UIDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "uids must contain between 1 and " + MAX_UIDS + " users");
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,69 @@
+package com.stardylog.api;
+
+import com.stardylog.api.dto.MyRankingResponse;
+import com.stardylog.api.dto.RankingEntryResponse;
+import com.stardylog.api.dto.RankingTopResponse;
+import com.stardylog.ranking.Leaderboard;
+import com.stardylog.ranking.RankingPeriod;
+import com.stardylog.ranking.RankingService;
+import com.stardylog.ranking.RankingTree;
+import com.stardylog.user.User;
+import com.stardylog.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 공부 시간 랭킹: /api/rankings/{daily|weekly|all-time}
+// 순위는 메모리 랭킹 트리에서 바로 계산 (study_logs / 통계 테이블을 집계하지 않음)
+@RestController
+@RequestMapping("/api/rankings")
+@RequiredArgsConstructor
+public class RankingController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RankingService rankingService;
+    private final UserRepository userRepository;
+
+    @GetMapping("/{period}")
+    public RankingTopResponse top(@PathVariable String period, @RequestParam(defaultValue = "10") int limit) {
+        RankingPeriod p = parse(period);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<RankingTree.Entry> top = rankingService.top(p, limit);
+        // 상위 N명의 닉네임만 한 번에 조회
+        Map<String, User> users = userRepository.findAllById(top.stream().map(RankingTree.Entry::uid).toList()).stream()
+                .collect(Collectors.toMap(User::getUid, Function.identity()));
+        List<RankingEntryResponse> entries = new ArrayList<>(top.size());
+        for (RankingTree.Entry e : top) {
+            User u = users.get(e.uid());
+            entries.add(new RankingEntryResponse(entries.size() + 1, u != null ? u.getDisplayName() : null, e.score()));
+        }
+        return new RankingTopResponse(p.path(), rankingService.currentPeriodStart(p), rankingService.size(p), entries);
+    }
+
+    @GetMapping("/{period}/me")
+    public MyRankingResponse me(Authentication auth, @PathVariable String period) {
+        String uid = (String) auth.getPrincipal();
+        RankingPeriod p = parse(period);
+        Leaderboard.Standing s = rankingService.standing(p, uid);
+        return new MyRankingResponse(p.path(), rankingService.currentPeriodStart(p), s.rank() == 0 ? null : s.rank(), s.score(), s.total());
+    }
+
+    private static RankingPeriod parse(String period) {
+        RankingPeriod p = RankingPeriod.fromPath(period);
+        if (p == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown ranking period");
+        }
+        return p;
+    }
+}
@@ -0,0 +1,47 @@
+package com.stardylog.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// 같은 키의 동시 요청을 하나의 조회로 합친다 (먼저 온 요청이 조회하고, 그동안 온 요청은 그 결과를 같이 받는다)
+// 결과를 남겨 두지 않으므로 조회가 끝난 뒤에 온 요청은 다시 조회한다. 키에 데이터 버전을 넣어서 쓰기 뒤의 요청이
+// 쓰기 전에 시작된 조회 결과를 받지 않게 한다. 결과는 여러 스레드가 같이 읽으므로 불변 객체여야 한다
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    // 조회한 요청과 같은 예외를 던진다 (ResponseStatusException 등)
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
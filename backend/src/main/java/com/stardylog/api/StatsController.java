@@ -0,0 +1,45 @@
+package com.stardylog.api;
+
+import com.stardylog.api.dto.DailyStatResponse;
+import com.stardylog.api.dto.WeeklyStatResponse;
+import com.stardylog.stats.StudyStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// 통계 API: study_daily_stats 롤업만 읽는다 (원본 study_logs는 조회하지 않음)
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private static final long MAX_RANGE_DAYS = 366 * 5;
+
+    private final StudyStatsService statsService;
+
+    @GetMapping("/daily")
+    public List<DailyStatResponse> daily(Authentication auth, @RequestParam LocalDate from, @RequestParam LocalDate to) {
+        String uid = (String) auth.getPrincipal();
+        checkRange(from, to);
+        return statsService.daily(uid, from, to);
+    }
+
+    @GetMapping("/weekly")
+    public List<WeeklyStatResponse> weekly(Authentication auth, @RequestParam LocalDate from, @RequestParam LocalDate to) {
+        String uid = (String) auth.getPrincipal();
+        checkRange(from, to);
+        return statsService.weekly(uid, from, to);
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date range");
+        }
+    }
+}
@@ -1,96 +1,80 @@
 package com.stardylog.api; // 패키지 이름 확인!
 
+import com.stardylog.api.dto.SubjectBatchRequest;
+import com.stardylog.api.dto.SubjectOrderRequest;
 import com.stardylog.api.dto.SubjectRequest; // [!] 나중에 만들 DTO
 import com.stardylog.api.dto.SubjectResponse; // [!] 나중에 만들 DTO
-import com.stardylog.subject.Subject;
-import com.stardylog.subject.SubjectRepository;
-import com.stardylog.user.User;
-import com.stardylog.user.UserRepository;
+import com.stardylog.subject.SubjectList;
+import com.stardylog.subject.SubjectQueryService;
+import com.stardylog.subject.SubjectService;
+import com.stardylog.user.UserVersionTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/subjects")
 @RequiredArgsConstructor
 public class SubjectController {
 
-    private final SubjectRepository subjectRepository;
-    private final UserRepository userRepository; // User 찾기 위해 필요
+    private final SubjectService subjectService; // 추가/수정/삭제 (변경 번호 부여 + 캐시 무효화)
+    private final SubjectQueryService subjectQueryService; // 과목 목록 캐시
+    private final UserVersionTracker versionTracker; // 조건부 GET (ETag)
 
-    // 1. 내 과목 목록 조회 (삭제되지 않은 것만)
+    // 1. 내 과목 목록 조회 (삭제되지 않은 것만, uid별 캐시). If-None-Match가 목록 버전과 같으면 304 (ResponseEntity의 ETag로 판단)
+    // 캐시된 목록이 알려진 버전보다 오래됐으면(다른 노드의 쓰기) 지우고 다시 읽는다. ETag는 항상 실제로 내보내는 목록의 버전
     @GetMapping
-    public List<SubjectResponse> getMySubjects(Authentication auth) {
+    public ResponseEntity<List<SubjectResponse>> getMySubjects(Authentication auth) {
         String uid = (String) auth.getPrincipal();
-        List<Subject> subjects = subjectRepository.findByUserUidAndDeletedFalseOrderByIdAsc(uid);
-        return subjects.stream().map(SubjectResponse::fromEntity).collect(Collectors.toList());
+        SubjectList list = subjectQueryService.findActive(uid);
+        if (list.version() < versionTracker.current(uid).changeSeq()) {
+            subjectQueryService.evict(uid);
+            list = subjectQueryService.findActive(uid);
+        }
+        return ResponseEntity.ok().eTag(UserVersionTracker.etag(uid, "subjects", list.version()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(list.subjects());
     }
 
     // 2. 새 과목 추가
     @PostMapping
     public ResponseEntity<SubjectResponse> addSubject(Authentication auth, @RequestBody @Valid SubjectRequest request) {
         String uid = (String) auth.getPrincipal();
-        User user = userRepository.findById(uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        // 중복 이름 체크
-        subjectRepository.findByUserUidAndNameAndDeletedFalse(uid, request.name())
-                .ifPresent(s -> {
-                    throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 사용 중인 과목 이름입니다.");
-                });
-
-        Subject newSubject = Subject.builder()
-                .user(user)
-                .name(request.name())
-                .color(request.color()) // DTO에서 색상 받기
-                .createdAt(Instant.now())
-                .deleted(false)
-                .build();
-
-        Subject savedSubject = subjectRepository.save(newSubject);
-        return ResponseEntity.status(HttpStatus.CREATED).body(SubjectResponse.fromEntity(savedSubject));
+        return ResponseEntity.status(HttpStatus.CREATED).body(subjectService.add(uid, request));
     }
 
     // 3. 과목 수정 (이름, 색상)
     @PutMapping("/{id}")
     public SubjectResponse updateSubject(Authentication auth, @PathVariable Long id, @RequestBody @Valid SubjectRequest request) {
         String uid = (String) auth.getPrincipal();
-        Subject subject = subjectRepository.findByIdAndUserUidAndDeletedFalse(id, uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Subject not found or unauthorized"));
-
-        // 수정하려는 이름이 이미 다른 과목에 사용 중인지 체크 (자기 자신 제외)
-        subjectRepository.findByUserUidAndNameAndDeletedFalse(uid, request.name())
-                .filter(s -> !s.getId().equals(id)) // 자기 자신은 제외
-                .ifPresent(s -> {
-                    throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 사용 중인 과목 이름입니다.");
-                });
-
-        subject.setName(request.name());
-        subject.setColor(request.color());
-        // (선택) 수정 시간 업데이트 필드 추가 가능
-        Subject updatedSubject = subjectRepository.save(subject);
-        return SubjectResponse.fromEntity(updatedSubject);
+        return subjectService.update(uid, id, request);
     }
 
     // 4. 과목 삭제 (논리적 삭제 - Soft Delete)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSubject(Authentication auth, @PathVariable Long id) {
         String uid = (String) auth.getPrincipal();
-        Subject subject = subjectRepository.findByIdAndUserUidAndDeletedFalse(id, uid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Subject not found or unauthorized"));
+        subjectService.delete(uid, id);
+        return ResponseEntity.noContent().build(); // 성공 시 204 No Content 반환
+    }
 
-        subject.setDeleted(true);
-        subject.setDeletedAt(Instant.now()); // 삭제 시간 기록 (선택 사항)
-        subjectRepository.save(subject);
+    // 5. 일괄 추가/수정/삭제 (한 트랜잭션, 결과 과목 목록 반환)
+    @PostMapping("/batch")
+    public List<SubjectResponse> applyBatch(Authentication auth, @RequestBody @Valid SubjectBatchRequest request) {
+        String uid = (String) auth.getPrincipal();
+        return subjectService.applyBatch(uid, request);
+    }
 
-        return ResponseEntity.noContent().build(); // 성공 시 204 No Content 반환
+    // 6. 표시 순서 변경 (삭제되지 않은 과목 id 전체를 순서대로)
+    @PutMapping("/order")
+    public List<SubjectResponse> reorder(Authentication auth, @RequestBody @Valid SubjectOrderRequest request) {
+        String uid = (String) auth.getPrincipal();
+        return subjectService.reorder(uid, request.ids());
     }
-}
\ No newline at end of file
+}
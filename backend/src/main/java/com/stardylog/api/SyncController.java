@@ -0,0 +1,42 @@
+package com.stardylog.api;
+
+import com.stardylog.api.dto.SyncResponse;
+import com.stardylog.sync.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+// 델타 동기화: 앱은 마지막으로 받은 nextToken을 저장해 두고 since로 보내면 그 뒤 변경분만 받는다
+// (처음 설치/초기화 시에는 since 없이 요청해 전체를 받는다)
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = 5000;
+
+    private final SyncService syncService;
+
+    @GetMapping
+    public SyncResponse sync(Authentication auth,
+                             @RequestParam(required = false) String since,
+                             @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        String uid = (String) auth.getPrincipal();
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        long sinceVersion;
+        try {
+            sinceVersion = SyncService.parseToken(since);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+        }
+        return syncService.changesSince(uid, sinceVersion, limit);
+    }
+}
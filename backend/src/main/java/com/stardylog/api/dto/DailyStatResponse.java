@@ -0,0 +1,14 @@
+package com.stardylog.api.dto;
+
+import java.time.LocalDate;
+
+// 일별 · 과목별 공부 통계
+public record DailyStatResponse(
+        LocalDate date,
+        Long subjectId,
+        String subjectName,
+        long studySeconds,
+        long breakSeconds,
+        int logCount
+) {
+}
@@ -0,0 +1,10 @@
+package com.stardylog.api.dto;
+
+import java.util.List;
+
+// 닉네임 사용 가능 여부 (사용 중이면 비어 있는 추천 닉네임)
+public record DisplayNameAvailabilityResponse(
+        String displayName,
+        boolean available,
+        List<String> suggestions
+) {}
@@ -0,0 +1,38 @@
+package com.stardylog.api.dto;
+
+import com.stardylog.insights.UserInsights;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+// 공부 인사이트 (야간 계산 결과라 오늘 기록은 다음 계산 후 반영)
+// focusBreakRatio: 공부 시간 / 휴식 시간 (휴식 기록이 없으면 null), bestHour: 공부 시간이 가장 많은 시 (0~23)
+public record InsightsResponse(
+        long studySeconds,
+        long breakSeconds,
+        Double focusBreakRatio,
+        long sessionCount,
+        long averageSessionSeconds,
+        long longestSessionSeconds,
+        int currentStreakDays,
+        int longestStreakDays,
+        LocalDate lastStudyDate,
+        Integer bestHour,
+        List<Long> hourlyStudySeconds
+) {
+    public static InsightsResponse of(UserInsights insights, LocalDate today) {
+        return new InsightsResponse(
+                insights.getStudySeconds(),
+                insights.getBreakSeconds(),
+                insights.focusBreakRatio(),
+                insights.getSessionCount(),
+                insights.averageSessionSeconds(),
+                insights.getLongestSessionSeconds(),
+                insights.currentStreakDays(today),
+                insights.getLongestStreakDays(),
+                insights.getLastStudyDate(),
+                insights.bestHour(),
+                Arrays.stream(insights.getHourStudySeconds()).boxed().toList());
+    }
+}
@@ -0,0 +1,17 @@
+package com.stardylog.api.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// 부하 테스트용 가상 사용자 토큰 발급 (loadtest 프로필). uid는 uidPrefix + 번호 (같은 값이면 같은 사용자)
+public record LoadTestTokenRequest(
+        @Min(1)
+        @Max(10000)
+        int users,
+
+        @Size(max = 50)
+        @Pattern(regexp = "^[a-zA-Z0-9_-]*$")
+        String uidPrefix
+) {}
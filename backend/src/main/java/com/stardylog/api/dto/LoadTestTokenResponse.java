@@ -0,0 +1,7 @@
+package com.stardylog.api.dto;
+
+// 가상 사용자 uid + Bearer 토큰
+public record LoadTestTokenResponse(
+        String uid,
+        String token
+) {}
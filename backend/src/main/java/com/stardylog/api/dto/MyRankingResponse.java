@@ -0,0 +1,13 @@
+package com.stardylog.api.dto;
+
+import java.time.LocalDate;
+
+// 내 순위 (이번 기간에 공부 기록이 없으면 rank = null)
+public record MyRankingResponse(
+        String period,
+        LocalDate periodStart,
+        Integer rank,
+        long studySeconds,
+        int totalUsers
+) {
+}
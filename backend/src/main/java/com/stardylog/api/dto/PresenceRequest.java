@@ -0,0 +1,11 @@
+package com.stardylog.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// 공부 세션 시작/하트비트/종료 (StudyLog.sessionId와 같은 값)
+public record PresenceRequest(
+        @NotBlank
+        @Size(max = 255)
+        String sessionId
+) {}
@@ -0,0 +1,10 @@
+package com.stardylog.api.dto;
+
+import java.time.Instant;
+
+// 사용자의 현재 공부 상태 (studying=false면 since는 null)
+public record PresenceResponse(
+        String uid,
+        boolean studying,
+        Instant since
+) {}
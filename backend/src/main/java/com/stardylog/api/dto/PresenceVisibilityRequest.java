@@ -0,0 +1,9 @@
+package com.stardylog.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+// 내 공부 중 표시를 다른 사용자에게 공개할지
+public record PresenceVisibilityRequest(
+        @NotNull
+        Boolean visible
+) {}
@@ -0,0 +1,9 @@
+package com.stardylog.api.dto;
+
+// 랭킹 한 줄 (uid 대신 닉네임만 공개)
+public record RankingEntryResponse(
+        int rank,
+        String displayName,
+        long studySeconds
+) {
+}
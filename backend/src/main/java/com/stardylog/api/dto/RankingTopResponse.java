@@ -0,0 +1,13 @@
+package com.stardylog.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 기간별 상위 N명
+public record RankingTopResponse(
+        String period,
+        LocalDate periodStart,
+        int totalUsers,
+        List<RankingEntryResponse> entries
+) {
+}
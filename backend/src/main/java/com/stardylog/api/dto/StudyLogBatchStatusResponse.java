@@ -0,0 +1,27 @@
+package com.stardylog.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// 비동기 저장 배치 상태: QUEUED -> DONE(inserted/skipped 포함) 또는 FAILED(같은 기록을 다시 보내면 됨)
+public record StudyLogBatchStatusResponse(
+        String batchToken,
+        @JsonIgnore String uid,
+        String status,
+        Integer inserted,
+        Integer skipped
+) {
+    public static StudyLogBatchStatusResponse queued(String token, String uid) {
+        return new StudyLogBatchStatusResponse(token, uid, "QUEUED", null, null);
+    }
+
+    public static StudyLogBatchStatusResponse completed(String token, String uid, StudyLogIngestResponse result) {
+        if (result == null) {
+            return failed(token, uid); // 사용자 없음
+        }
+        return new StudyLogBatchStatusResponse(token, uid, "DONE", result.inserted(), result.skipped());
+    }
+
+    public static StudyLogBatchStatusResponse failed(String token, String uid) {
+        return new StudyLogBatchStatusResponse(token, uid, "FAILED", null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.stardylog.api.dto;
+
+// 공부 기록 저장 결과: inserted = 새로 저장된 구간 수, skipped = 이미 있던(중복) 구간 수
+public record StudyLogIngestResponse(
+        int inserted,
+        int skipped
+) {
+}
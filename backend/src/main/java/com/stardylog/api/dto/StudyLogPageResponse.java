@@ -0,0 +1,10 @@
+package com.stardylog.api.dto;
+
+import java.util.List;
+
+// 키셋 페이지 응답: nextCursor가 null이면 마지막 페이지
+public record StudyLogPageResponse(
+        List<StudyLogResponse> items,
+        String nextCursor
+) {
+}
@@ -2,16 +2,20 @@ package com.stardylog.api.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.Instant;
 
 public record StudyLogRequest(
         @NotBlank
+        @Size(max = 50) // subjects.name 길이 (이름으로 과목을 찾거나 만든다)
         String subjectName,
 
         @NotBlank
+        @Size(max = 64) // study_logs.session_id 길이
         String sessionId,
 
         @NotBlank
+        @Size(max = 20) // study_logs.interval_type 길이
         String intervalType,
 
         @NotNull
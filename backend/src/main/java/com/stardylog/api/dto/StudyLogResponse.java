@@ -6,6 +6,7 @@ import java.time.Instant;
 // Flutter 앱으로 보낼 공부 기록 DTO
 public record StudyLogResponse(
         Long id,
+        Long subjectId,
         String subjectName,
         String sessionId,
         String intervalType,
@@ -17,7 +18,8 @@ public record StudyLogResponse(
     public StudyLogResponse(StudyLog log) {
         this(
                 log.getId(),
-                log.getSubjectName(),
+                log.getSubject() != null ? log.getSubject().getId() : null,
+                log.getSubject() != null ? log.getSubject().getName() : log.getSubjectName(),
                 log.getSessionId(),
                 log.getIntervalType(),
                 log.getDurationSeconds(),
@@ -0,0 +1,25 @@
+package com.stardylog.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// 과목 일괄 추가/수정/삭제 (한 트랜잭션). 빠진 목록은 빈 목록으로 본다
+public record SubjectBatchRequest(
+        @Size(max = 200)
+        List<@Valid @NotNull SubjectRequest> create,
+
+        @Size(max = 200)
+        List<@Valid @NotNull SubjectUpdateRequest> update,
+
+        @Size(max = 200)
+        List<@NotNull Long> delete
+) {
+    public SubjectBatchRequest {
+        create = create == null ? List.of() : create;
+        update = update == null ? List.of() : update;
+        delete = delete == null ? List.of() : delete;
+    }
+}
@@ -0,0 +1,14 @@
+package com.stardylog.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// 과목 표시 순서 변경: 삭제되지 않은 과목 id 전체를 보여줄 순서대로
+public record SubjectOrderRequest(
+        @NotEmpty
+        @Size(max = 1000)
+        List<@NotNull Long> ids
+) {}
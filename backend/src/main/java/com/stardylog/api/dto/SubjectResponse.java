@@ -1,20 +1,23 @@
 package com.stardylog.api.dto; // 패키지 이름 확인!
 
 import com.stardylog.subject.Subject;
+import java.io.Serializable;
 
-// 과목 정보 서버 -> 클라이언트
+// 과목 정보 서버 -> 클라이언트 (과목 목록 캐시에 그대로 저장되므로 Serializable)
 public record SubjectResponse(
         Long id,
         String name,
-        String color
+        String color,
+        int sortOrder
         // (선택) createdAt 등 필요한 정보 추가
-) {
+) implements Serializable {
     // Entity -> DTO 변환을 위한 정적 팩토리 메서드
     public static SubjectResponse fromEntity(Subject subject) {
         return new SubjectResponse(
                 subject.getId(),
                 subject.getName(),
-                subject.getColor()
+                subject.getColor(),
+                subject.getSortOrder()
         );
     }
 }
\ No newline at end of file
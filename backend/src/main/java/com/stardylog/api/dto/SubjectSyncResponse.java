@@ -0,0 +1,16 @@
+package com.stardylog.api.dto;
+
+import com.stardylog.subject.Subject;
+
+// 델타 동기화용 과목 정보 (deleted=true면 클라이언트에서 지워야 하는 툼스톤)
+public record SubjectSyncResponse(
+        Long id,
+        String name,
+        String color,
+        int sortOrder,
+        boolean deleted
+) {
+    public static SubjectSyncResponse fromEntity(Subject subject) {
+        return new SubjectSyncResponse(subject.getId(), subject.getName(), subject.getColor(), subject.getSortOrder(), subject.isDeleted());
+    }
+}
@@ -0,0 +1,18 @@
+package com.stardylog.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+// 일괄 변경에서 과목 하나 수정 (SubjectRequest + 대상 id)
+public record SubjectUpdateRequest(
+        @NotNull
+        Long id,
+
+        @NotBlank
+        @Size(max = 50)
+        String name,
+
+        @Size(max = 10)
+        String color
+) {}
@@ -0,0 +1,13 @@
+package com.stardylog.api.dto;
+
+import java.util.List;
+
+// 델타 동기화 응답: since 이후 바뀐 과목/기록과 다음 요청에 넘길 토큰
+// hasMore=true면 nextToken으로 바로 다시 요청한다
+public record SyncResponse(
+        List<SubjectSyncResponse> subjects,
+        List<StudyLogResponse> logs,
+        String nextToken,
+        boolean hasMore
+) {
+}
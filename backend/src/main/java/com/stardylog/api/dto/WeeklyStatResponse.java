@@ -0,0 +1,14 @@
+package com.stardylog.api.dto;
+
+import java.time.LocalDate;
+
+// 주별(월요일 시작) · 과목별 공부 통계
+public record WeeklyStatResponse(
+        LocalDate weekStart,
+        Long subjectId,
+        String subjectName,
+        long studySeconds,
+        long breakSeconds,
+        int logCount
+) {
+}
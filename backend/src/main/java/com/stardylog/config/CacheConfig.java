@@ -0,0 +1,10 @@
+package com.stardylog.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// @Cacheable 활성화. 캐시 종류/크기/TTL은 application.properties의 spring.cache.* 에서 설정
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -5,10 +5,13 @@ import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import jakarta.annotation.PostConstruct;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.io.InputStream;
 
+// loadtest 프로필은 서비스 계정 없이 로컬 JWT로 인증한다 (LocalJwtTokenVerifier)
 @Configuration
+@Profile("!loadtest")
 public class FirebaseConfig {
     @PostConstruct
     public void init() throws Exception {
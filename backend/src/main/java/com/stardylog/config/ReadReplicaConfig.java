@@ -0,0 +1,68 @@
+package com.stardylog.config;
+
+import com.stardylog.db.RecentWriteTracker;
+import com.stardylog.db.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기 복제본 라우팅. stardylog.datasource.replica-urls가 있을 때만 켜진다 (없으면 spring.datasource 하나만 사용)
+// JPA/JdbcTemplate/Flyway는 모두 아래 @Primary DataSource를 쓰고, 쓰기/마이그레이션은 항상 primary로 간다
+@Configuration
+@ConditionalOnProperty("stardylog.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    // spring.datasource.* / spring.datasource.hikari.* 설정을 그대로 쓰는 primary 풀
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RecentWriteTracker recentWriteTracker(
+            @Value("${stardylog.datasource.read-your-writes-window:PT5S}") Duration window,
+            @Value("${stardylog.datasource.read-your-writes-max-users:100000}") long maxUsers) {
+        return new RecentWriteTracker(window, maxUsers);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceProperties properties,
+                                 RecentWriteTracker recentWriteTracker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${stardylog.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${stardylog.datasource.replica-pool-size:10}") int replicaPoolSize,
+                                 @Value("${stardylog.datasource.replica-retry-after:PT30S}") Duration replicaRetryAfter) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) continue;
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // 복제본이 꺼져 있어도 기동은 되도록 (연결 실패 시 primary로 읽는다)
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) return primaryDataSource;
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primaryDataSource, replicas, recentWriteTracker, replicaRetryAfter, meterRegistry));
+    }
+}
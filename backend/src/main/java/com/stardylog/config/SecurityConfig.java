@@ -1,9 +1,13 @@
 package com.stardylog.config;
 
 import com.stardylog.security.FirebaseAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
@@ -11,22 +15,47 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final FirebaseAuthFilter firebaseAuthFilter;
+    private final Environment environment;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(reg -> reg
+                        // 스트리밍 응답(StreamingResponseBody) 완료 시의 ASYNC 디스패치는 이미 인증된 요청의 연장
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(HttpMethod.GET, "/health").permitAll()
+                        // 액추에이터는 management.server.port(외부 비공개)로 들어온 요청만 토큰 없이 접근 (스크레이퍼)
+                        // 포트 설정이 빠져 공개 포트에 열리면 다른 API처럼 인증이 필요하다
+                        .requestMatchers(managementPortRequest()).permitAll()
+                        // 부하 테스트 토큰 발급 (loadtest 프로필에서만 열린다)
+                        .requestMatchers(loadTestTokenRequest()).permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(firebaseAuthFilter, AnonymousAuthenticationFilter.class);
         return http.build();
     }
+
+    private RequestMatcher managementPortRequest() {
+        Integer managementPort = environment.getProperty("management.server.port", Integer.class);
+        Integer serverPort = environment.getProperty("server.port", Integer.class, 8080);
+        RequestMatcher endpoint = EndpointRequest.toAnyEndpoint();
+        return request -> managementPort != null && managementPort > 0 && !managementPort.equals(serverPort)
+                && request.getLocalPort() == managementPort
+                && endpoint.matches(request);
+    }
+
+    private RequestMatcher loadTestTokenRequest() {
+        boolean loadTest = environment.acceptsProfiles(Profiles.of("loadtest"));
+        return request -> loadTest
+                && HttpMethod.POST.matches(request.getMethod())
+                && "/loadtest/tokens".equals(request.getRequestURI());
+    }
 }
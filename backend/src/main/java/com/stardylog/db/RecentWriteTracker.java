@@ -0,0 +1,48 @@
+package com.stardylog.db;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+// 최근에 쓰기를 커밋한 사용자 (read-your-writes)
+// - 인증된 요청에서 쓰기 트랜잭션이 커밋되면 그 uid를 window 동안 기억한다
+// - 그동안 같은 사용자의 읽기는 복제 지연과 상관없이 primary에서 읽는다
+// 노드별 메모리라 다른 노드로 간 요청에는 적용되지 않는다 (window는 평소 복제 지연보다 넉넉하게)
+public class RecentWriteTracker implements TransactionExecutionListener {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public RecentWriteTracker(Duration window, long maxSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public void markWrite(String uid) {
+        recentWriters.put(uid, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(String uid) {
+        return recentWriters.getIfPresent(uid) != null;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) return;
+        String uid = currentUid();
+        if (uid != null) markWrite(uid);
+    }
+
+    // 요청 스레드의 인증된 uid (스케줄러/비동기 writer 스레드에서는 null)
+    static String currentUid() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof String uid)) return null;
+        return uid;
+    }
+}
@@ -0,0 +1,94 @@
+package com.stardylog.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// readOnly 트랜잭션을 복제본으로 보내는 DataSource
+// 복제본으로 가는 경우: 인증된 요청 스레드의 readOnly 트랜잭션이고, 그 사용자가 최근에 쓰지 않았을 때
+// 그 외(쓰기, 트랜잭션 밖, 스케줄러/백필 작업, 방금 쓴 사용자)는 모두 primary
+// - 복제본은 순서대로 돌아가며 쓰고, 연결에 실패한 복제본은 retry-after 동안 빼고 primary로 대신 읽는다
+// - 트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않으므로 LazyConnectionDataSourceProxy로 감싸서 쓴다
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final RecentWriteTracker writeTracker;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, RecentWriteTracker writeTracker,
+                                    Duration retryAfter, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.writeTracker = writeTracker;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.primaryReads = Counter.builder("datasource.routing.reads").tag("target", "primary").register(meterRegistry);
+        this.replicaReads = Counter.builder("datasource.routing.reads").tag("target", "replica").register(meterRegistry);
+        this.fallbackReads = Counter.builder("datasource.routing.reads").tag("target", "fallback").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) return primary.getConnection();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        long now = System.nanoTime();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.downUntil - now > 0) continue;
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.downUntil = now + retryAfterNanos;
+                log.warn("read replica unavailable, falling back to primary: {}", e.getMessage());
+            }
+        }
+        // 쓸 수 있는 복제본이 없음
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // 사용자를 지정한 연결은 라우팅하지 않는다
+        return primary.getConnection(username, password);
+    }
+
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String uid = RecentWriteTracker.currentUid();
+        if (uid == null || writeTracker.wroteRecently(uid)) {
+            primaryReads.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile long downUntil = System.nanoTime();
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.stardylog.insights;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import com.stardylog.insights.UserInsightsStore.Pending;
+import com.stardylog.insights.UserInsightsStore.SessionTotal;
+import com.stardylog.log.StudyLogArchiveStore;
+import com.stardylog.log.StudyLogQueryService;
+import com.stardylog.stats.StudyStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// 공부 인사이트 (연속 공부 일수, 공부/휴식 비율, 세션 길이, 잘 되는 시간대) 야간 계산
+// - 마지막 계산 이후 변경 번호가 올라간 사용자만, 그 사이에 저장된 기록만 읽어서 user_insights에 더한다
+//   users.change_seq는 커밋된 값만 보이므로 그 번호까지의 기록은 모두 커밋돼 있다 (다음 실행과 겹치거나 빠지지 않음)
+// - 사용자끼리는 독립이라 사용자 목록을 반씩 나눠 ForkJoinPool에서 병렬로 처리 (parallelism만큼 DB 커넥션을 쓴다)
+//   기본값은 CPU 수와 (풀 크기 - 네임드 락 1개 - 요청용 여유) 중 작은 값이라, 야간 계산이 풀을 다 쓰지 않는다
+// - 처음 계산하는 사용자는 보관 파일로 옮겨진 옛 기록도 읽는다
+// 여러 노드가 같은 사용자를 동시에 더하지 않도록 MySQL 네임드 락을 잡고 실행한다
+@Slf4j
+@Service
+public class InsightsService implements ApplicationRunner {
+
+    private static final String LOCK_NAME = "stardylog.insights";
+    private static final int SESSION_CHUNK = 500;
+
+    private final UserInsightsStore store;
+    private final StudyLogArchiveStore archiveStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ZoneId zone;
+    private final boolean computeOnStartup;
+    private final int parallelism;
+    private final int usersPerTask;
+
+    public InsightsService(UserInsightsStore store,
+                           StudyLogArchiveStore archiveStore,
+                           JdbcTemplate jdbcTemplate,
+                           StudyStatsService statsService,
+                           @Value("${stardylog.insights.compute-on-startup:false}") boolean computeOnStartup,
+                           @Value("${stardylog.insights.parallelism:0}") int parallelism,
+                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                           @Value("${stardylog.insights.users-per-task:32}") int usersPerTask) {
+        this.store = store;
+        this.archiveStore = archiveStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.zone = statsService.zone();
+        this.computeOnStartup = computeOnStartup;
+        this.parallelism = parallelism > 0 ? parallelism : defaultParallelism(poolSize);
+        this.usersPerTask = usersPerTask;
+    }
+
+    // GET_LOCK이 커넥션 하나를 잡고 있고, 같은 시각의 요청도 커넥션이 필요하므로 풀의 절반 이하만 쓴다
+    static int defaultParallelism(int poolSize) {
+        int available = Math.min(poolSize - 1, poolSize / 2);
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), available));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (computeOnStartup) {
+            computeAll();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserInsights> find(String uid) {
+        return store.find(uid);
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    @Scheduled(cron = "${stardylog.insights.cron:0 0 4 * * *}", zone = "${stardylog.stats.zone:Asia/Seoul}")
+    public void computeAll() {
+        // GET_LOCK/RELEASE_LOCK은 같은 커넥션에서 해야 하므로 커넥션 하나를 잡고 있는다
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("select get_lock(?, 0)")) {
+                ps.setString(1, LOCK_NAME);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        log.debug("insights computation is running on another node");
+                        return null;
+                    }
+                }
+            }
+            try {
+                computeLocked();
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement("select release_lock(?)")) {
+                    ps.setString(1, LOCK_NAME);
+                    ps.executeQuery().close();
+                }
+            }
+            return null;
+        });
+    }
+
+    void computeLocked() {
+        long started = System.nanoTime();
+        List<Pending> pending = store.findPending();
+        AtomicLong failed = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Batch(pending, 0, pending.size(), failed));
+        } finally {
+            pool.shutdown();
+        }
+        log.info("insights computed for {} users ({} failed) with {} threads in {} ms",
+                pending.size() - failed.get(), failed.get(), parallelism, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 사용자 한 명: 이전 결과에 (checkpoint, target] 구간의 기록을 더해서 저장
+    public void compute(Pending user) {
+        String uid = user.uid();
+        UserInsights insights = store.find(uid).orElseGet(() -> new UserInsights(uid));
+        long checkpoint = insights.getChangeVersion();
+        if (checkpoint >= user.target()) return;
+
+        Set<String> touched = new HashSet<>();
+        Consumer<StudyLogResponse> add = row -> {
+            insights.add(row, zone);
+            if (row.sessionId() != null) touched.add(row.sessionId());
+        };
+
+        // 처음 계산: 보관 파일의 기록은 DB 세션 합계에 잡히지 않으므로 세션별 공부 시간을 여기서 모은다
+        Map<String, Long> archivedSessions = new HashMap<>();
+        Instant from = StudyLogQueryService.MIN_TIME;
+        Instant horizon = archiveStore.horizon();
+        if (checkpoint == 0 && horizon != null) {
+            archiveStore.read(uid, StudyLogQueryService.MIN_TIME, horizon, row -> {
+                insights.add(row, zone);
+                if (row.sessionId() != null) {
+                    boolean study = !StudyStatsService.BREAK.equals(row.intervalType());
+                    archivedSessions.merge(row.sessionId(), study ? (long) row.durationSeconds() : 0L, Long::sum);
+                }
+                return true;
+            });
+            // 보관된 파티션은 drop-grace 동안 DB에도 남아 있으므로 DB에서는 horizon 이후만 읽는다 (두 번 더하지 않게)
+            from = horizon;
+        }
+        store.streamChanges(uid, checkpoint, user.target(), from, add);
+
+        long newSessions = 0;
+        long longest = 0;
+        List<String> ids = new ArrayList<>(touched);
+        for (int i = 0; i < ids.size(); i += SESSION_CHUNK) {
+            for (SessionTotal total : store.sessionTotals(uid, ids.subList(i, Math.min(i + SESSION_CHUNK, ids.size())), checkpoint, user.target(), from)) {
+                Long archived = archivedSessions.remove(total.sessionId());
+                if (!total.existedBefore() && archived == null) newSessions++;
+                longest = Math.max(longest, total.studySeconds() + (archived != null ? archived : 0));
+            }
+        }
+        for (long seconds : archivedSessions.values()) {
+            newSessions++;
+            longest = Math.max(longest, seconds);
+        }
+        insights.addSessions(newSessions, longest);
+        insights.updateStreaks(store.studyDates(uid));
+        insights.advanceTo(user.target());
+        store.save(insights);
+    }
+
+    // 사용자 목록 [from, to)를 usersPerTask 이하가 될 때까지 반으로 나눈다
+    private final class Batch extends RecursiveAction {
+        private final List<Pending> users;
+        private final int from;
+        private final int to;
+        private final AtomicLong failed;
+
+        private Batch(List<Pending> users, int from, int to, AtomicLong failed) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > usersPerTask) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Batch(users, from, mid, failed), new Batch(users, mid, to, failed));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Pending user = users.get(i);
+                try {
+                    InsightsService.this.compute(user);
+                } catch (RuntimeException e) {
+                    // 실패한 사용자는 checkpoint가 그대로라 다음 실행에서 다시 계산된다
+                    failed.incrementAndGet();
+                    log.warn("failed to compute insights for user {}", user.uid(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.stardylog.insights;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import com.stardylog.stats.StudyStatsService;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+// 사용자 한 명의 인사이트 (user_insights 한 행)
+// - 합계/구간 수/시간대별 공부 시간은 changeVersion 이후 새 기록만 더해 간다 (기록은 추가만 되고 바뀌지 않는다)
+// - 세션 수/최장 세션은 새 기록이 닿은 세션만 다시 합산해서 반영 (InsightsService)
+// - 평균 세션 길이는 세션이 있는 기록의 공부 시간만으로 (세션 없는 옛 기록은 분자에서도 뺀다)
+// - 연속 공부 일수는 일별 롤업(study_daily_stats)의 공부한 날짜로 매번 다시 계산
+@Getter
+public class UserInsights {
+
+    private final String uid;
+    private long changeVersion;
+    private long studySeconds;
+    private long breakSeconds;
+    private long sessionStudySeconds; // 세션 id가 있는 기록의 공부 시간
+    private long studyIntervals;
+    private long breakIntervals;
+    private long sessionCount;
+    private long longestSessionSeconds;
+    // stardylog.stats.zone 기준 시작 시각의 시(0~23)별 공부 시간
+    private final long[] hourStudySeconds;
+    private int currentStreakDays; // lastStudyDate에서 끝나는 연속 일수
+    private int longestStreakDays;
+    private LocalDate lastStudyDate;
+
+    public UserInsights(String uid) {
+        this(uid, 0, 0, 0, 0, 0, 0, 0, 0, new long[24], 0, 0, null);
+    }
+
+    UserInsights(String uid, long changeVersion, long studySeconds, long breakSeconds, long sessionStudySeconds,
+                 long studyIntervals, long breakIntervals, long sessionCount, long longestSessionSeconds, long[] hourStudySeconds,
+                 int currentStreakDays, int longestStreakDays, LocalDate lastStudyDate) {
+        this.uid = uid;
+        this.changeVersion = changeVersion;
+        this.studySeconds = studySeconds;
+        this.breakSeconds = breakSeconds;
+        this.sessionStudySeconds = sessionStudySeconds;
+        this.studyIntervals = studyIntervals;
+        this.breakIntervals = breakIntervals;
+        this.sessionCount = sessionCount;
+        this.longestSessionSeconds = longestSessionSeconds;
+        this.hourStudySeconds = hourStudySeconds;
+        this.currentStreakDays = currentStreakDays;
+        this.longestStreakDays = longestStreakDays;
+        this.lastStudyDate = lastStudyDate;
+    }
+
+    // 새 기록 한 건을 더한다 (intervalType이 BREAK면 휴식, 그 외는 공부: 롤업과 같은 기준)
+    void add(StudyLogResponse row, ZoneId zone) {
+        if (StudyStatsService.BREAK.equals(row.intervalType())) {
+            breakSeconds += row.durationSeconds();
+            breakIntervals++;
+        } else {
+            studySeconds += row.durationSeconds();
+            if (row.sessionId() != null) sessionStudySeconds += row.durationSeconds();
+            studyIntervals++;
+            hourStudySeconds[row.startTime().atZone(zone).getHour()] += row.durationSeconds();
+        }
+    }
+
+    // 새 기록이 닿은 세션 반영: newSessions는 이번에 처음 본 세션 수, longestTouchedSessionSeconds는 닿은 세션 중 가장 긴 세션의 전체 공부 시간
+    void addSessions(long newSessions, long longestTouchedSessionSeconds) {
+        sessionCount += newSessions;
+        longestSessionSeconds = Math.max(longestSessionSeconds, longestTouchedSessionSeconds);
+    }
+
+    // 공부한 날짜(오름차순, 중복 없음)로 연속 일수 계산
+    void updateStreaks(List<LocalDate> studyDates) {
+        int longest = 0;
+        int run = 0;
+        LocalDate prev = null;
+        for (LocalDate date : studyDates) {
+            run = prev != null && date.equals(prev.plusDays(1)) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            prev = date;
+        }
+        currentStreakDays = run;
+        longestStreakDays = longest;
+        lastStudyDate = prev;
+    }
+
+    void advanceTo(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+
+    // today 기준 연속 일수 (어제까지 공부했으면 아직 이어지는 중으로 본다)
+    public int currentStreakDays(LocalDate today) {
+        if (lastStudyDate == null || lastStudyDate.isBefore(today.minusDays(1))) return 0;
+        return currentStreakDays;
+    }
+
+    // 공부 시간이 가장 많은 시 (기록이 없으면 null)
+    public Integer bestHour() {
+        int best = -1;
+        for (int hour = 0; hour < hourStudySeconds.length; hour++) {
+            if (hourStudySeconds[hour] > 0 && (best < 0 || hourStudySeconds[hour] > hourStudySeconds[best])) best = hour;
+        }
+        return best < 0 ? null : best;
+    }
+
+    // 공부 시간 / 휴식 시간 (휴식이 없으면 null)
+    public Double focusBreakRatio() {
+        return breakSeconds == 0 ? null : (double) studySeconds / breakSeconds;
+    }
+
+    // 세션당 공부 시간 (sessionCount는 세션 id가 있는 기록만 센다)
+    public long averageSessionSeconds() {
+        return sessionCount == 0 ? 0 : sessionStudySeconds / sessionCount;
+    }
+
+    public long[] getHourStudySeconds() {
+        return Arrays.copyOf(hourStudySeconds, hourStudySeconds.length);
+    }
+}
@@ -0,0 +1,172 @@
+package com.stardylog.insights;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.TimeZone;
+import java.util.function.Consumer;
+
+// user_insights 읽기/쓰기와 인사이트 계산에 필요한 조회 (InsightsService 전용)
+@Component
+@RequiredArgsConstructor
+public class UserInsightsStore {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final String UPSERT_SQL = """
+            insert into user_insights (user_uid, change_version, study_seconds, break_seconds, session_study_seconds,
+                                       study_intervals, break_intervals,
+                                       session_count, longest_session_seconds, hour_study_seconds,
+                                       current_streak_days, longest_streak_days, last_study_date, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on duplicate key update
+                change_version = values(change_version), study_seconds = values(study_seconds),
+                break_seconds = values(break_seconds), session_study_seconds = values(session_study_seconds),
+                study_intervals = values(study_intervals),
+                break_intervals = values(break_intervals), session_count = values(session_count),
+                longest_session_seconds = values(longest_session_seconds), hour_study_seconds = values(hour_study_seconds),
+                current_streak_days = values(current_streak_days), longest_streak_days = values(longest_streak_days),
+                last_study_date = values(last_study_date), updated_at = values(updated_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 마지막 계산 이후 변경 번호가 올라간 사용자 (uid 순)
+    public List<Pending> findPending() {
+        return jdbcTemplate.query("""
+                select u.uid, u.change_seq, coalesce(i.change_version, 0)
+                from users u left join user_insights i on i.user_uid = u.uid
+                where u.change_seq > coalesce(i.change_version, 0)
+                order by u.uid
+                """, (rs, i) -> new Pending(rs.getString(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    public Optional<UserInsights> find(String uid) {
+        return jdbcTemplate.query("select * from user_insights where user_uid = ?", (rs, i) -> new UserInsights(
+                rs.getString("user_uid"),
+                rs.getLong("change_version"),
+                rs.getLong("study_seconds"),
+                rs.getLong("break_seconds"),
+                rs.getLong("session_study_seconds"),
+                rs.getLong("study_intervals"),
+                rs.getLong("break_intervals"),
+                rs.getLong("session_count"),
+                rs.getLong("longest_session_seconds"),
+                parseHours(rs.getString("hour_study_seconds")),
+                rs.getInt("current_streak_days"),
+                rs.getInt("longest_streak_days"),
+                Optional.ofNullable(rs.getDate("last_study_date")).map(Date::toLocalDate).orElse(null)), uid)
+                .stream().findFirst();
+    }
+
+    public void save(UserInsights insights) {
+        StringJoiner hours = new StringJoiner(",");
+        for (long seconds : insights.getHourStudySeconds()) hours.add(Long.toString(seconds));
+        LocalDate lastStudyDate = insights.getLastStudyDate();
+        jdbcTemplate.update(UPSERT_SQL,
+                insights.getUid(),
+                insights.getChangeVersion(),
+                insights.getStudySeconds(),
+                insights.getBreakSeconds(),
+                insights.getSessionStudySeconds(),
+                insights.getStudyIntervals(),
+                insights.getBreakIntervals(),
+                insights.getSessionCount(),
+                insights.getLongestSessionSeconds(),
+                hours.toString(),
+                insights.getCurrentStreakDays(),
+                insights.getLongestStreakDays(),
+                lastStudyDate != null ? Date.valueOf(lastStudyDate) : null,
+                Timestamp.from(Instant.now()));
+    }
+
+    // change_version이 (after, upTo]이고 start_time >= from인 기록을 변경 번호 순으로 스트리밍 (idx_study_logs_user_version 범위 읽기)
+    // 합산만 하므로 시간 순일 필요가 없고, 시간 순으로 읽으면 인덱스를 못 타고 정렬이 붙는다
+    // from: 보관 파일에서 이미 읽은 구간(horizon 이전)을 빼기 위한 하한. 보관 후 DROP 전인 파티션이 DB에 남아 있다
+    public void streamChanges(String uid, long after, long upTo, Instant from, Consumer<StudyLogResponse> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    select session_id, interval_type, duration_seconds, start_time
+                    from study_logs
+                    where user_uid = ? and change_version > ? and change_version <= ? and start_time >= ?
+                    order by change_version
+                    """, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setString(1, uid);
+            ps.setLong(2, after);
+            ps.setLong(3, upTo);
+            ps.setTimestamp(4, Timestamp.from(from), Calendar.getInstance(UTC));
+            ps.setFetchSize(Integer.MIN_VALUE); // MySQL 스트리밍 커서
+            return ps;
+        }, rs -> {
+            consumer.accept(new StudyLogResponse(null, null, null,
+                    rs.getString("session_id"),
+                    rs.getString("interval_type"),
+                    rs.getInt("duration_seconds"),
+                    rs.getTimestamp("start_time", Calendar.getInstance(UTC)).toInstant(),
+                    null));
+        });
+    }
+
+    // 세션별 (이전 계산 때 이미 있던 행 수, upTo까지의 공부 시간 합계). uk_study_logs_session_interval 앞부분으로 찾는다
+    // start_time >= from인 행만 (streamChanges와 같은 하한)
+    public List<SessionTotal> sessionTotals(String uid, List<String> sessionIds, long before, long upTo, Instant from) {
+        if (sessionIds.isEmpty()) return List.of();
+        String placeholders = String.join(",", Collections.nCopies(sessionIds.size(), "?"));
+        return jdbcTemplate.query("""
+                select session_id,
+                       sum(case when change_version <= ? then 1 else 0 end),
+                       sum(case when interval_type <> 'BREAK' and change_version <= ? then duration_seconds else 0 end)
+                from study_logs
+                where user_uid = ? and change_version <= ? and start_time >= ? and session_id in (%s)
+                group by session_id
+                """.formatted(placeholders), ps -> {
+                    ps.setLong(1, before);
+                    ps.setLong(2, upTo);
+                    ps.setString(3, uid);
+                    ps.setLong(4, upTo);
+                    ps.setTimestamp(5, Timestamp.from(from), Calendar.getInstance(UTC));
+                    for (int i = 0; i < sessionIds.size(); i++) {
+                        ps.setString(6 + i, sessionIds.get(i));
+                    }
+                },
+                (rs, i) -> new SessionTotal(rs.getString(1), rs.getLong(2) > 0, rs.getLong(3)));
+    }
+
+    // 공부 시간이 있는 날짜 (오름차순)
+    public List<LocalDate> studyDates(String uid) {
+        return jdbcTemplate.query("""
+                select stat_date from study_daily_stats
+                where user_uid = ?
+                group by stat_date
+                having sum(study_seconds) > 0
+                order by stat_date
+                """, (rs, i) -> rs.getDate(1).toLocalDate(), uid);
+    }
+
+    private static long[] parseHours(String value) {
+        long[] hours = new long[24];
+        String[] parts = value.split(",");
+        for (int i = 0; i < Math.min(parts.length, hours.length); i++) {
+            hours[i] = Long.parseLong(parts[i]);
+        }
+        return hours;
+    }
+
+    // 다시 계산할 사용자: 지금 커밋된 변경 번호(target)와 마지막 계산 시점(checkpoint)
+    public record Pending(String uid, long target, long checkpoint) {}
+
+    public record SessionTotal(String sessionId, boolean existedBefore, long studySeconds) {}
+}
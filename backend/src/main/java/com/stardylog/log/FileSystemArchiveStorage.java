@@ -0,0 +1,57 @@
+package com.stardylog.log;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// 디렉터리에 보관 파일을 둔다. 노드가 여러 개면 dir은 모든 노드가 같이 마운트한 공유 디렉터리여야 한다
+// (노드 로컬 디스크면 다른 노드는 study_log_archives에 등록된 파일을 찾지 못한다)
+@Component
+@ConditionalOnProperty(name = "stardylog.logs.archive.storage", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemArchiveStorage implements StudyLogArchiveStorage {
+
+    private final Path dir;
+
+    public FileSystemArchiveStorage(@Value("${stardylog.logs.archive.dir:./archive/study_logs}") Path dir) {
+        this.dir = dir;
+    }
+
+    // 같은 디렉터리의 임시 파일로 복사한 뒤 하드 링크로 이름을 붙인다 (읽는 쪽에 쓰다 만 파일이 보이지 않게)
+    // rename은 있는 파일을 덮어쓰지만 링크는 같은 이름이 있으면 FileAlreadyExistsException
+    @Override
+    public void put(String name, Path localFile) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(name + ".tmp");
+        Files.copy(localFile, tmp, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            Files.createLink(dir.resolve(name), tmp);
+        } finally {
+            Files.delete(tmp);
+        }
+    }
+
+    @Override
+    public byte[] read(String name, long offset, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve(name), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, offset + buf.position()) < 0) throw new EOFException(name);
+            }
+            return buf.array();
+        }
+    }
+
+    @Override
+    public byte[] readAll(String name) throws IOException {
+        return Files.readAllBytes(dir.resolve(name));
+    }
+}
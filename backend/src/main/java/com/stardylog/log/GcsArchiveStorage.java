@@ -0,0 +1,80 @@
+package com.stardylog.log;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import com.google.firebase.cloud.StorageClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+// Firebase 프로젝트의 Cloud Storage 버킷에 보관 파일을 둔다 (FirebaseConfig의 서비스 계정으로 접근)
+// 객체 이름: <prefix><파일 이름>. 사용자 한 명 기록은 범위 읽기(seek)로 그 gzip 멤버만 받는다
+@Component
+@ConditionalOnProperty(name = "stardylog.logs.archive.storage", havingValue = "gcs")
+public class GcsArchiveStorage implements StudyLogArchiveStorage {
+
+    private final String bucket;
+    private final String prefix;
+    private volatile Storage storage;
+
+    public GcsArchiveStorage(@Value("${stardylog.logs.archive.gcs.bucket}") String bucket,
+                             @Value("${stardylog.logs.archive.gcs.prefix:archive/study_logs/}") String prefix) {
+        this.bucket = bucket;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void put(String name, Path localFile) throws IOException {
+        try {
+            // 같은 이름의 객체가 있으면 실패 (generation 0 조건)
+            storage().createFrom(BlobInfo.newBuilder(blobId(name)).build(), localFile, Storage.BlobWriteOption.doesNotExist());
+        } catch (StorageException e) {
+            throw new IOException("cannot upload archive " + name, e);
+        }
+    }
+
+    @Override
+    public byte[] read(String name, long offset, int length) throws IOException {
+        try (ReadChannel reader = storage().reader(blobId(name))) {
+            reader.seek(offset);
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            while (buf.hasRemaining()) {
+                if (reader.read(buf) < 0) throw new EOFException(name);
+            }
+            return buf.array();
+        } catch (StorageException e) {
+            throw new IOException("cannot read archive " + name, e);
+        }
+    }
+
+    @Override
+    public byte[] readAll(String name) throws IOException {
+        try {
+            return storage().readAllBytes(blobId(name));
+        } catch (StorageException e) {
+            throw new IOException("cannot read archive " + name, e);
+        }
+    }
+
+    private BlobId blobId(String name) {
+        return BlobId.of(bucket, prefix + name);
+    }
+
+    // FirebaseApp은 FirebaseConfig가 기동 중에 초기화하므로 처음 쓸 때 가져온다
+    private Storage storage() {
+        Storage s = storage;
+        if (s == null) {
+            s = StorageClient.getInstance().bucket(bucket).getStorage();
+            storage = s;
+        }
+        return s;
+    }
+}
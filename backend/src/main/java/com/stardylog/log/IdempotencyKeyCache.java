@@ -0,0 +1,80 @@
+package com.stardylog.log;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Idempotency-Key 헤더별 POST /api/logs/study 응답을 잠깐 보관한다
+// 같은 키로 동시에 들어온 재시도는 먼저 온 요청의 결과를 기다렸다가 그대로 받는다 (실패한 결과는 저장하지 않음)
+// 저장 작업은 맵의 compute(synchronized) 밖에서 실행한다: 가상 스레드가 DB I/O 동안 캐리어 스레드를 붙잡지 않도록
+// 키와 함께 본문의 해시를 보관해서, 같은 키를 다른 본문에 다시 쓰면 이전 응답 대신 422로 거절한다
+@Component
+public class IdempotencyKeyCache {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final AsyncCache<String, Object> cache;
+
+    public IdempotencyKeyCache(@Value("${stardylog.ingest.idempotency.ttl:PT10M}") Duration ttl,
+                               @Value("${stardylog.ingest.idempotency.max-size:100000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .buildAsync();
+    }
+
+    // body: 요청 본문을 일정한 형태로 직렬화한 바이트 (같은 내용이면 같은 바이트)
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(String uid, String idempotencyKey, byte[] body, Supplier<T> ingest) {
+        Pending mine = new Pending(sha256(body));
+        CompletableFuture<Object> existing = cache.asMap().putIfAbsent(uid + ":" + idempotencyKey, mine);
+        if (existing != null) {
+            if (!Arrays.equals(((Pending) existing).bodyHash, mine.bodyHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request body");
+            }
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            T result = ingest.get();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Error여도 끝내야 같은 키로 기다리는 요청이 영원히 멈추지 않는다. 실패한 future는 캐시에서 자동으로 제거된다
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // 모든 JVM에 있는 알고리즘
+        }
+    }
+
+    // 캐시에 넣은 future 그대로 돌려받으므로 본문 해시를 같이 들고 다닌다
+    private static final class Pending extends CompletableFuture<Object> {
+        private final byte[] bodyHash;
+
+        private Pending(byte[] bodyHash) {
+            this.bodyHash = bodyHash;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.stardylog.log;
 
+import com.stardylog.subject.Subject;
 import com.stardylog.user.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -7,7 +8,17 @@ import java.time.Instant;
 
 
 @Entity
-@Table(name = "study_logs")
+@Table(name = "study_logs", indexes = {
+        // 사용자별 기간 조회 + (startTime, id) 키셋 페이지네이션용
+        @Index(name = "idx_study_logs_user_start", columnList = "user_uid, start_time"),
+        // 델타 동기화 (change_version > since) 조회용
+        @Index(name = "idx_study_logs_user_version", columnList = "user_uid, change_version"),
+        // 과목별 기간 조회용
+        @Index(name = "idx_study_logs_user_subject_start", columnList = "user_uid, subject_id, start_time")
+}, uniqueConstraints = {
+        // 재전송된 같은 구간은 한 번만 저장 (멱등 저장의 최종 보루)
+        @UniqueConstraint(name = "uk_study_logs_session_interval", columnNames = {"user_uid", "session_id", "interval_type", "start_time"})
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class StudyLog {
 
@@ -15,14 +26,28 @@ public class StudyLog {
     @GeneratedValue(strategy =  GenerationType.IDENTITY)
     private Long id;
 
+    // 파티션 테이블은 외래 키를 가질 수 없으므로 FK 제약은 만들지 않는다 (V2__convert_baseline_schema.sql)
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_uid")
+    @JoinColumn(name = "user_uid", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
 
+    // 과목은 id로 참조한다 (이름은 subjects에서 조인해 읽으므로 과목 이름을 바꿔도 기록/통계가 따라간다)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Subject subject;
+
+    // 레거시: subject_id 도입 전 기록의 과목 이름. 새 기록에는 쓰지 않고 StudyLogSubjectBackfillJob이 비운다
     private String subjectName;
+    @Column(length = 64)
     private String sessionId;
+    @Column(length = 20)
     private String intervalType;
     private int durationSeconds;
-    private Instant startTime;
+    @Column(nullable = false)
+    private Instant startTime; // 파티션 키 (월 단위 RANGE)
     private Instant endTime;
+
+    // 사용자별 변경 번호 (User.changeSeq에서 발급)
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
 }
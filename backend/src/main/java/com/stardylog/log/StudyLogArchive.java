@@ -0,0 +1,30 @@
+package com.stardylog.log;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+// study_logs에서 떼어 내 압축 파일로 옮긴 파티션 한 개 ([rangeStart, rangeEnd) 구간)
+// 파일: <archive-dir>/<fileName> (사용자별 gzip 멤버를 이어 붙인 NDJSON) + <fileName>.idx (uid -> 오프셋)
+// 다시 보관하면 새 이름의 파일을 올리고 fileName만 바꾼다 (이전 파일은 다른 노드가 refresh 전까지 읽을 수 있게 그대로 둔다)
+@Entity
+@Table(name = "study_log_archives")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class StudyLogArchive {
+
+    @Id
+    @Column(length = 64)
+    private String partitionName;
+
+    @Column(nullable = false)
+    private Instant rangeStart;
+
+    @Column(nullable = false)
+    private Instant rangeEnd;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private long rowCount;
+    private Instant archivedAt;
+}
@@ -0,0 +1,10 @@
+package com.stardylog.log;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface StudyLogArchiveRepository extends JpaRepository<StudyLogArchive, String> {
+
+    List<StudyLogArchive> findAllByOrderByRangeStartAsc();
+}
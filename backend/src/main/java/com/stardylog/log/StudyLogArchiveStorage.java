@@ -0,0 +1,19 @@
+package com.stardylog.log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// 보관 파일을 두는 곳. study_log_archives는 모든 노드가 같이 보므로 파일도 모든 노드에서 읽을 수 있어야 한다
+// - filesystem: stardylog.logs.archive.dir (여러 노드면 NFS/EFS 같은 공유 마운트)
+// - gcs: Firebase 프로젝트의 Cloud Storage 버킷 (stardylog.logs.archive.gcs.bucket)
+public interface StudyLogArchiveStorage {
+
+    // 로컬 파일을 name으로 올린다. 돌아온 뒤에는 모든 노드에서 읽을 수 있다
+    // 같은 이름이 이미 있으면 덮어쓰지 않고 IOException (한 번 올린 파일은 내용이 바뀌지 않는다)
+    void put(String name, Path localFile) throws IOException;
+
+    // [offset, offset + length) 구간
+    byte[] read(String name, long offset, int length) throws IOException;
+
+    byte[] readAll(String name) throws IOException;
+}
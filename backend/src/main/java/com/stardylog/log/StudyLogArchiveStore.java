@@ -0,0 +1,248 @@
+package com.stardylog.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stardylog.api.dto.StudyLogResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 보존 기간이 지난 study_logs 파티션의 압축 보관 파일 읽기/쓰기
+// - 파일 하나 = 파티션 하나. 사용자마다 별도 gzip 멤버로 이어 붙이고, .idx에 uid -> (오프셋, 길이)를 적는다
+//   그래서 한 사용자의 기록만 읽을 때 파일 전체를 풀지 않고 그 사용자 멤버만 읽는다
+// - 파일 이름은 쓸 때마다 새로 (<파티션>-<쓰기 시작 시각 ms>.ndjson.gz). 올린 파일은 덮어쓰지 않으므로
+//   같은 파티션을 다시 보관해도 다른 노드가 옛 이름으로 캐시한 색인이 다른 내용의 파일을 가리키는 일이 없다
+// - horizon: 이 시각 이전의 기록은 모두 보관 파일에 있다 (보관된 파티션은 항상 가장 오래된 것부터 연속)
+// 파일은 StudyLogArchiveStorage(공유 디렉터리 또는 Cloud Storage)에 두어서 모든 노드가 읽는다. 쓰는 동안은 로컬 임시 파일
+// 다른 노드가 보관한 파티션도 보이도록 study_log_archives를 refresh-interval마다 다시 읽는다
+// (StudyLogPartitionManager는 등록 후 이 주기보다 오래 기다렸다가 파티션을 DROP한다)
+@Component
+public class StudyLogArchiveStore {
+
+    private final StudyLogArchiveRepository archiveRepository;
+    private final ObjectMapper objectMapper;
+    private final StudyLogArchiveStorage storage;
+    // 파일별 uid -> {offset, length}
+    private final Cache<String, Map<String, long[]>> indexes;
+
+    private volatile List<StudyLogArchive> archives = List.of();
+
+    public StudyLogArchiveStore(StudyLogArchiveRepository archiveRepository,
+                                ObjectMapper objectMapper,
+                                StudyLogArchiveStorage storage,
+                                @Value("${stardylog.logs.archive.index-cache-size:64}") long indexCacheSize) {
+        this.archiveRepository = archiveRepository;
+        this.objectMapper = objectMapper;
+        this.storage = storage;
+        this.indexes = Caffeine.newBuilder().maximumSize(indexCacheSize).build();
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${stardylog.logs.archive.refresh-interval:PT5M}", initialDelayString = "${stardylog.logs.archive.refresh-interval:PT5M}")
+    public void refresh() {
+        archives = List.copyOf(archiveRepository.findAllByOrderByRangeStartAsc());
+    }
+
+    // 보관 파일로 옮겨진 구간의 끝 (보관된 것이 없으면 null)
+    public Instant horizon() {
+        List<StudyLogArchive> current = archives;
+        return current.isEmpty() ? null : current.get(current.size() - 1).getRangeEnd();
+    }
+
+    public boolean isArchived(Instant time) {
+        Instant horizon = horizon();
+        return horizon != null && time.isBefore(horizon);
+    }
+
+    // [from, to) 구간의 사용자 기록을 (startTime, id) 순으로 sink에 넘긴다. sink가 false를 돌려주면 중단
+    // 반환값: 중단 없이 끝까지 읽었으면 true
+    public boolean read(String uid, Instant from, Instant to, Predicate<StudyLogResponse> sink) {
+        for (StudyLogArchive archive : archives) {
+            if (!archive.getRangeEnd().isAfter(from) || !archive.getRangeStart().isBefore(to)) continue;
+            long[] member = index(archive.getFileName()).get(uid);
+            if (member == null) continue;
+            for (StudyLogResponse row : readMember(archive.getFileName(), member)) {
+                if (row.startTime().isBefore(from) || !row.startTime().isBefore(to)) continue;
+                if (!sink.test(row)) return false;
+            }
+        }
+        return true;
+    }
+
+    public Writer newWriter(String partitionName) throws IOException {
+        return new Writer(partitionName);
+    }
+
+    private Map<String, long[]> index(String fileName) {
+        return indexes.get(fileName, name -> {
+            Map<String, long[]> index = new HashMap<>();
+            try {
+                for (String line : new String(storage.readAll(name + ".idx"), StandardCharsets.UTF_8).split("\n")) {
+                    if (line.isEmpty()) continue;
+                    String[] f = line.split("\t");
+                    index.put(f[0], new long[]{Long.parseLong(f[1]), Long.parseLong(f[2])});
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot read archive index " + name, e);
+            }
+            return index;
+        });
+    }
+
+    // 한 사용자·한 달치라 메모리에 읽어도 작다
+    private List<StudyLogResponse> readMember(String fileName, long[] member) {
+        try {
+            byte[] bytes = storage.read(fileName, member[0], Math.toIntExact(member[1]));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8))) {
+                return reader.lines()
+                        .map(line -> {
+                            try {
+                                return objectMapper.readValue(line, StudyLogResponse.class);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        })
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read archive " + fileName, e);
+        }
+    }
+
+    // 파티션 하나를 보관 파일로 쓴다. 같은 사용자의 행은 연속해서 (startTime, id) 순으로 add 해야 한다
+    // commit 전까지는 로컬 임시 파일에만 쓰므로 중간에 실패해도 완성되지 않은 보관 파일이 남지 않는다
+    public class Writer implements AutoCloseable {
+
+        private final String fileName;
+        private final Path tmp;
+        private final Path indexTmp;
+        private final CountingOutputStream out;
+        private final java.io.Writer index;
+        private final Set<String> finishedUsers = new HashSet<>();
+        private GZIPOutputStream member;
+        private String currentUid;
+        private long memberStart;
+        private long rows;
+        private boolean committed;
+
+        private Writer(String partitionName) throws IOException {
+            this.fileName = partitionName + "-" + Instant.now().toEpochMilli() + ".ndjson.gz";
+            this.tmp = Files.createTempFile(partitionName + "-", ".ndjson.gz.tmp");
+            this.indexTmp = Files.createTempFile(partitionName + "-", ".idx.tmp");
+            this.out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16));
+            this.index = Files.newBufferedWriter(indexTmp, StandardCharsets.UTF_8);
+        }
+
+        public void add(String uid, StudyLogResponse row) throws IOException {
+            if (!uid.equals(currentUid)) {
+                finishMember();
+                if (!finishedUsers.add(uid)) {
+                    throw new IllegalStateException("rows of user " + uid + " are not contiguous");
+                }
+                currentUid = uid;
+                memberStart = out.count;
+                member = new GZIPOutputStream(new NonClosingOutputStream(out), 1 << 13);
+            }
+            member.write(objectMapper.writeValueAsBytes(row));
+            member.write('\n');
+            rows++;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        // 저장소에 올리고 파일 이름을 돌려준다. 읽는 쪽은 study_log_archives에 등록된 이름으로만 찾으므로
+        // 등록(호출 측) 전에 두 파일이 모두 올라가 있다. 같은 이름이 이미 있으면 덮어쓰지 않고 실패한다
+        public String commit() throws IOException {
+            finishMember();
+            out.close();
+            index.close();
+            storage.put(fileName, tmp);
+            storage.put(fileName + ".idx", indexTmp);
+            committed = true;
+            deleteTemporaryFiles();
+            return fileName;
+        }
+
+        private void finishMember() throws IOException {
+            if (member == null) return;
+            member.finish();
+            index.write(currentUid + "\t" + memberStart + "\t" + (out.count - memberStart) + "\n");
+            member = null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            out.close();
+            index.close();
+            deleteTemporaryFiles();
+        }
+
+        private void deleteTemporaryFiles() throws IOException {
+            Files.deleteIfExists(tmp);
+            Files.deleteIfExists(indexTmp);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    // gzip 멤버를 끝낼 때(finish) 아래 파일 스트림까지 닫히지 않게 한다
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
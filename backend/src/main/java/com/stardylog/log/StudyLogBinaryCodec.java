@@ -0,0 +1,309 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogRequest;
+import com.stardylog.api.dto.StudyLogResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 공부 기록 대량 동기화용 바이너리 컬럼 포맷 (application/x-stardylog-logs)
+//
+// 스트림 = 헤더 + 블록* + 종료 블록
+//   헤더: 'S' 'D' 'L' 버전(1) 플래그(bit0 = id 컬럼 포함)
+//   블록: varint 행 수(0이면 스트림 끝)
+//         시간 단위 1바이트 (0 = 마이크로초, 1 = 밀리초, 2 = 초: 블록 안의 모든 시각이 나누어떨어지는 가장 큰 단위)
+//         사전 3개(subjectName, sessionId, intervalType): varint 개수 + (varint 바이트 길이 + UTF-8)*
+//         컬럼(행 수만큼씩 순서대로):
+//           [id]          이전 행 id와의 차이 (zigzag varint)
+//           subject       사전 인덱스 + 1 (0 = null)
+//           session       사전 인덱스 + 1 (0 = null)
+//           type          사전 인덱스 + 1 (0 = null)
+//           duration      durationSeconds (zigzag varint)
+//           start         이전 행 startTime과의 차이, 블록 시간 단위 (zigzag varint, 블록 첫 행은 epoch 기준)
+//           end           endTime - (startTime + durationSeconds), 블록 시간 단위 (zigzag varint, 보통 1초 미만)
+// 블록 단위(최대 BLOCK_ROWS행)로 쓰기 때문에 전체를 메모리에 올리지 않고 스트리밍할 수 있다.
+// 압축은 HTTP Content-Encoding(gzip)으로 별도 적용한다.
+public final class StudyLogBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-stardylog-logs";
+
+    static final int BLOCK_ROWS = 4096;
+    private static final byte[] MAGIC = {'S', 'D', 'L'};
+    private static final int VERSION = 1;
+    private static final int FLAG_IDS = 1;
+    private static final int MAX_STRING_BYTES = 1024;
+    private static final long[] UNIT_MICROS = {1L, 1_000L, 1_000_000L};
+
+    private StudyLogBinaryCodec() {
+    }
+
+    public static Writer writer(OutputStream out, boolean withIds) throws IOException {
+        return new Writer(out, withIds);
+    }
+
+    // POST 본문 디코딩. 행 수가 maxRows를 넘거나 형식이 잘못되면(범위를 벗어난 값 포함) IllegalArgumentException,
+    // 스트림이 중간에 끊겼으면 EOFException
+    public static List<StudyLogRequest> readRequests(InputStream in, int maxRows) throws IOException {
+        for (byte b : MAGIC) {
+            if (readByte(in) != b) throw new IllegalArgumentException("Not a study log stream");
+        }
+        if (readByte(in) != VERSION) throw new IllegalArgumentException("Unsupported version");
+        boolean withIds = (readByte(in) & FLAG_IDS) != 0;
+
+        List<StudyLogRequest> rows = new ArrayList<>();
+        while (true) {
+            int count = readSize(in, BLOCK_ROWS, "Too many rows");
+            if (count == 0) {
+                if (in.read() >= 0) throw new IllegalArgumentException("Trailing data after end of stream");
+                return rows;
+            }
+            if (rows.size() + count > maxRows) {
+                throw new IllegalArgumentException("Too many rows");
+            }
+            int unitCode = readByte(in);
+            if (unitCode >= UNIT_MICROS.length) throw new IllegalArgumentException("Invalid time unit");
+            long unit = UNIT_MICROS[unitCode];
+            String[] subjects = readDictionary(in);
+            String[] sessions = readDictionary(in);
+            String[] types = readDictionary(in);
+
+            if (withIds) {
+                for (int i = 0; i < count; i++) readVarint(in); // 요청에서는 id를 쓰지 않는다
+            }
+            int[] subjectIdx = readInts(in, count);
+            int[] sessionIdx = readInts(in, count);
+            int[] typeIdx = readInts(in, count);
+            long[] durations = new long[count];
+            for (int i = 0; i < count; i++) {
+                durations[i] = unzigzag(readVarint(in));
+                if (durations[i] < Integer.MIN_VALUE || durations[i] > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Invalid duration");
+                }
+            }
+            long[] starts = new long[count];
+            long prevStart = 0;
+            for (int i = 0; i < count; i++) {
+                prevStart = timeAt(prevStart, unzigzag(readVarint(in)), unit);
+                starts[i] = prevStart;
+            }
+            for (int i = 0; i < count; i++) {
+                long end = timeAt(timeAt(starts[i], durations[i], 1_000_000L), unzigzag(readVarint(in)), unit);
+                rows.add(new StudyLogRequest(
+                        lookup(subjects, subjectIdx[i]),
+                        lookup(sessions, sessionIdx[i]),
+                        lookup(types, typeIdx[i]),
+                        (int) durations[i],
+                        ofMicros(starts[i]),
+                        ofMicros(end)));
+            }
+        }
+    }
+
+    // 행을 모아 BLOCK_ROWS마다 블록 하나를 내보낸다. close()가 마지막 블록과 종료 표시를 쓴다
+    public static final class Writer implements Closeable {
+        private final OutputStream out;
+        private final boolean withIds;
+        private final List<StudyLogResponse> block = new ArrayList<>(BLOCK_ROWS);
+        private long prevId;
+
+        private Writer(OutputStream out, boolean withIds) throws IOException {
+            this.out = out;
+            this.withIds = withIds;
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(withIds ? FLAG_IDS : 0);
+        }
+
+        public void write(StudyLogResponse row) throws IOException {
+            block.add(row);
+            if (block.size() == BLOCK_ROWS) flushBlock();
+        }
+
+        private void flushBlock() throws IOException {
+            if (block.isEmpty()) return;
+            Dictionary subjects = new Dictionary();
+            Dictionary sessions = new Dictionary();
+            Dictionary types = new Dictionary();
+            int[] subjectIdx = new int[block.size()];
+            int[] sessionIdx = new int[block.size()];
+            int[] typeIdx = new int[block.size()];
+            for (int i = 0; i < block.size(); i++) {
+                StudyLogResponse row = block.get(i);
+                subjectIdx[i] = subjects.indexOf(row.subjectName());
+                sessionIdx[i] = sessions.indexOf(row.sessionId());
+                typeIdx[i] = types.indexOf(row.intervalType());
+            }
+
+            int unitCode = timeUnitOf(block);
+            long unit = UNIT_MICROS[unitCode];
+
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(block.size() * 12);
+            writeVarint(buf, block.size());
+            buf.write(unitCode);
+            subjects.writeTo(buf);
+            sessions.writeTo(buf);
+            types.writeTo(buf);
+            if (withIds) {
+                for (StudyLogResponse row : block) {
+                    long id = row.id() == null ? 0 : row.id();
+                    writeVarint(buf, zigzag(id - prevId));
+                    prevId = id;
+                }
+            }
+            for (int idx : subjectIdx) writeVarint(buf, idx);
+            for (int idx : sessionIdx) writeVarint(buf, idx);
+            for (int idx : typeIdx) writeVarint(buf, idx);
+            for (StudyLogResponse row : block) writeVarint(buf, zigzag(row.durationSeconds()));
+            long prevStart = 0;
+            for (StudyLogResponse row : block) {
+                long start = toMicros(row.startTime());
+                writeVarint(buf, zigzag((start - prevStart) / unit));
+                prevStart = start;
+            }
+            for (StudyLogResponse row : block) {
+                long expectedEnd = toMicros(row.startTime()) + row.durationSeconds() * 1_000_000L;
+                writeVarint(buf, zigzag((toMicros(row.endTime()) - expectedEnd) / unit));
+            }
+            buf.writeTo(out);
+            block.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushBlock();
+            writeVarint(out, 0);
+            out.flush();
+        }
+    }
+
+    // 블록의 모든 시각이 나누어떨어지는 가장 큰 단위
+    private static int timeUnitOf(List<StudyLogResponse> block) {
+        for (int code = UNIT_MICROS.length - 1; code > 0; code--) {
+            long unit = UNIT_MICROS[code];
+            boolean fits = true;
+            for (StudyLogResponse row : block) {
+                if (toMicros(row.startTime()) % unit != 0 || toMicros(row.endTime()) % unit != 0) {
+                    fits = false;
+                    break;
+                }
+            }
+            if (fits) return code;
+        }
+        return 0;
+    }
+
+    // 블록 안에서 문자열 -> 인덱스(+1, 0은 null)
+    private static final class Dictionary {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int indexOf(String value) {
+            if (value == null) return 0;
+            return index.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size();
+            });
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            writeVarint(out, values.size());
+            for (String v : values) {
+                byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static String[] readDictionary(InputStream in) throws IOException {
+        int size = readSize(in, BLOCK_ROWS, "Invalid dictionary size");
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            int len = readSize(in, MAX_STRING_BYTES, "Invalid string length");
+            byte[] bytes = in.readNBytes(len);
+            if (bytes.length < len) throw new EOFException("Unexpected end of study log stream");
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    // 0..max 범위의 개수/길이 (varint를 int로 자르면 큰 값이 작은 값으로 바뀔 수 있으므로 먼저 범위 확인)
+    private static int readSize(InputStream in, int max, String message) throws IOException {
+        long v = readVarint(in);
+        if (v < 0 || v > max) throw new IllegalArgumentException(message);
+        return (int) v;
+    }
+
+    private static String lookup(String[] dictionary, int idx) {
+        if (idx == 0) return null;
+        if (idx < 0 || idx > dictionary.length) throw new IllegalArgumentException("Invalid dictionary index");
+        return dictionary[idx - 1];
+    }
+
+    private static int[] readInts(InputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) values[i] = readSize(in, BLOCK_ROWS, "Invalid dictionary index");
+        return values;
+    }
+
+    // base + delta * unit (마이크로초). 넘치면 잘못된 요청
+    private static long timeAt(long base, long delta, long unit) {
+        try {
+            return Math.addExact(base, Math.multiplyExact(delta, unit));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Timestamp out of range");
+        }
+    }
+
+    private static long toMicros(Instant instant) {
+        if (instant == null) throw new IllegalArgumentException("Timestamps are required");
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant ofMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static void writeVarint(OutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    static long readVarint(InputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) throw new EOFException("Unexpected end of study log stream");
+        return b;
+    }
+}
@@ -0,0 +1,88 @@
+package com.stardylog.log;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+// study_logs 대량 INSERT 전용 경로
+// StudyLog.id가 IDENTITY라 Hibernate는 INSERT를 배치로 묶지 못하므로, JDBC 배치로 직접 쓴다.
+// MySQL은 rewriteBatchedStatements=true 설정 시 배치 하나가 multi-row INSERT 한 번으로 전송된다.
+@Component
+public class StudyLogBulkWriter {
+
+    static final String INSERT_SQL = """
+            insert into study_logs
+                (user_uid, subject_id, session_id, interval_type, duration_seconds, start_time, end_time, change_version)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            on duplicate key update id = id
+            """;
+
+    // 이번에 저장한 번호 구간 중 실제로 남아 있는 행 (중복 키로 건너뛴 행은 기존 행의 번호를 갖고 있다)
+    static final String INSERTED_VERSIONS_SQL = """
+            select change_version from study_logs
+            where user_uid = ? and change_version between ? and ?
+            """;
+
+    // Hibernate가 Instant를 저장하는 방식(UTC 기준 TIMESTAMP)과 맞춘다
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public StudyLogBulkWriter(JdbcTemplate jdbcTemplate,
+                              @Value("${stardylog.ingest.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // 호출 측 트랜잭션에 참여하고, 실제로 INSERT된 기록만 돌려준다 (통계/응답 개수는 이것으로 계산)
+    // 중복 키만 ON DUPLICATE KEY UPDATE로 건너뛴다. INSERT IGNORE와 달리 잘림/잘못된 값 같은 다른 오류는 그대로 실패한다
+    // (중복 판별은 StudyLogIngestService에서 먼저 수행하므로 보통은 모두 INSERT된다)
+    // rewriteBatchedStatements에서는 행별 update count를 믿을 수 없어서, 사용자별로 부여한 change_version이 남았는지로 판별한다
+    public List<StudyLog> write(List<StudyLog> logs) {
+        if (logs.isEmpty()) return List.of();
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, batchSize, (ps, log) -> {
+            ps.setString(1, log.getUser().getUid());
+            ps.setLong(2, log.getSubject().getId());
+            ps.setString(3, log.getSessionId());
+            ps.setString(4, log.getIntervalType());
+            ps.setInt(5, log.getDurationSeconds());
+            ps.setTimestamp(6, toTimestamp(log.getStartTime()), Calendar.getInstance(UTC));
+            ps.setTimestamp(7, toTimestamp(log.getEndTime()), Calendar.getInstance(UTC));
+            ps.setLong(8, log.getChangeVersion());
+        });
+        return insertedOnly(logs);
+    }
+
+    private List<StudyLog> insertedOnly(List<StudyLog> logs) {
+        Map<String, List<StudyLog>> byUser = new LinkedHashMap<>();
+        for (StudyLog log : logs) {
+            byUser.computeIfAbsent(log.getUser().getUid(), k -> new ArrayList<>()).add(log);
+        }
+        List<StudyLog> inserted = new ArrayList<>(logs.size());
+        byUser.forEach((uid, userLogs) -> {
+            LongSummaryStatistics range = userLogs.stream().mapToLong(StudyLog::getChangeVersion).summaryStatistics();
+            Set<Long> versions = new HashSet<>(jdbcTemplate.queryForList(INSERTED_VERSIONS_SQL, Long.class, uid, range.getMin(), range.getMax()));
+            for (StudyLog log : userLogs) {
+                if (versions.contains(log.getChangeVersion())) inserted.add(log);
+            }
+        });
+        return inserted;
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+}
@@ -0,0 +1,22 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogResponse;
+
+import java.time.Instant;
+
+// 델타 동기화용 조회 결과: 응답 DTO + 변경 번호 (과목 변경과 번호 순으로 합치기 위해 필요)
+public record StudyLogChange(
+        Long id,
+        Long subjectId,
+        String subjectName,
+        String sessionId,
+        String intervalType,
+        int durationSeconds,
+        Instant startTime,
+        Instant endTime,
+        long changeVersion
+) {
+    public StudyLogResponse toResponse() {
+        return new StudyLogResponse(id, subjectId, subjectName, sessionId, intervalType, durationSeconds, startTime, endTime);
+    }
+}
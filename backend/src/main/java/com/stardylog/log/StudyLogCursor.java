@@ -0,0 +1,25 @@
+package com.stardylog.log;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+// GET /api/logs/study 키셋 페이지네이션 커서: 마지막으로 받은 행의 (startTime, id)
+public record StudyLogCursor(Instant startTime, long id) {
+
+    public String encode() {
+        String raw = startTime.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 형식이 잘못된 커서는 IllegalArgumentException
+    public static StudyLogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new StudyLogCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.stardylog.log;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stardylog.api.dto.StudyLogResponse;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// 공부 기록 내보내기 형식 (행 단위로 바로 쓰므로 메모리 사용량은 행 수와 무관)
+// - CSV: 헤더 한 줄 + 행, RFC 4180 인용
+// - NDJSON: 한 줄에 행 하나 (StudyLogResponse JSON)
+// - BINARY: StudyLogBinaryCodec 컬럼 포맷 (id 포함). 분석용 컬럼 포맷 대신 쓴다
+// withUid면 맨 앞에 user_uid 컬럼/필드를 붙인다 (여러 사용자를 한 파일에 쓰는 오프라인 내보내기)
+public enum StudyLogExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    BINARY(StudyLogBinaryCodec.MEDIA_TYPE, "sdl");
+
+    private final String mediaType;
+    private final String extension;
+
+    StudyLogExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    // 모르는 형식이면 IllegalArgumentException
+    public static StudyLogExportFormat parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    // 닫으면 남은 내용을 내보내고 out도 닫는다
+    public RowWriter open(OutputStream out, ObjectMapper objectMapper, boolean withUid) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvWriter(out, withUid);
+            case NDJSON -> new NdjsonWriter(out, objectMapper, withUid);
+            case BINARY -> {
+                if (withUid) throw new IllegalArgumentException("Binary export holds a single user's logs");
+                StudyLogBinaryCodec.Writer writer = StudyLogBinaryCodec.writer(out, true);
+                yield new RowWriter() {
+                    @Override
+                    public void write(String uid, StudyLogResponse row) throws IOException {
+                        writer.write(row);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try (out) {
+                            writer.close();
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    public interface RowWriter extends Closeable {
+        void write(String uid, StudyLogResponse row) throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer out;
+        private final boolean withUid;
+
+        private CsvWriter(OutputStream out, boolean withUid) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            this.withUid = withUid;
+            if (withUid) this.out.write("user_uid,");
+            this.out.write("id,subject_id,subject_name,session_id,interval_type,duration_seconds,start_time,end_time\n");
+        }
+
+        @Override
+        public void write(String uid, StudyLogResponse row) throws IOException {
+            if (withUid) {
+                field(uid);
+                out.write(',');
+            }
+            out.write(Long.toString(row.id()));
+            out.write(',');
+            if (row.subjectId() != null) out.write(Long.toString(row.subjectId()));
+            out.write(',');
+            field(row.subjectName());
+            out.write(',');
+            field(row.sessionId());
+            out.write(',');
+            field(row.intervalType());
+            out.write(',');
+            out.write(Integer.toString(row.durationSeconds()));
+            out.write(',');
+            if (row.startTime() != null) out.write(row.startTime().toString());
+            out.write(',');
+            if (row.endTime() != null) out.write(row.endTime().toString());
+            out.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) return;
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static final class NdjsonWriter implements RowWriter {
+        private final OutputStream out;
+        private final JsonGenerator gen;
+        private final boolean withUid;
+
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper, boolean withUid) throws IOException {
+            this.out = out;
+            this.gen = objectMapper.getFactory().createGenerator(out);
+            this.gen.setRootValueSeparator(null);
+            this.withUid = withUid;
+        }
+
+        @Override
+        public void write(String uid, StudyLogResponse row) throws IOException {
+            if (withUid) {
+                gen.writeStartObject();
+                gen.writeStringField("userUid", uid);
+                gen.writeObjectField("log", row);
+                gen.writeEndObject();
+            } else {
+                gen.writeObject(row);
+            }
+            gen.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (out) {
+                gen.close();
+            }
+        }
+    }
+}
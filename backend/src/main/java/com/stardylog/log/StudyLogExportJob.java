@@ -0,0 +1,168 @@
+package com.stardylog.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stardylog.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+// 전체 사용자의 공부 기록을 파일로 내보내는 오프라인 작업 (분석/백업용)
+// - 사용자 순서(uid 바이너리 순)대로 한 명씩 DB 커서로 읽어 part-NNNNN.<형식>.gz 에 이어 쓴다 (보관 구간 포함)
+// - 파일에 rows-per-file행 이상 쌓이면 사용자 경계에서 다음 파일로 넘어간다
+// - 파일은 .tmp로 쓰고 다 쓴 뒤 이름을 바꾸며, 그때 checkpoint에 마지막 사용자와 다음 파일 번호를 남긴다
+//   중간에 멈추면 다시 돌렸을 때 쓰다 만 .tmp를 버리고 checkpoint 다음 사용자부터 이어서 쓴다
+// stardylog.export.on-startup=true 로 기동하면 실행 (형식은 csv 또는 ndjson, 한 파일에 여러 사용자라 user_uid 포함)
+@Slf4j
+@Component
+public class StudyLogExportJob implements ApplicationRunner {
+
+    private static final String CHECKPOINT = "checkpoint.properties";
+
+    private final UserRepository userRepository;
+    private final StudyLogQueryService studyLogQueryService;
+    private final ObjectMapper objectMapper;
+    private final boolean exportOnStartup;
+    private final Path dir;
+    private final StudyLogExportFormat format;
+    private final long rowsPerFile;
+
+    public StudyLogExportJob(UserRepository userRepository,
+                             StudyLogQueryService studyLogQueryService,
+                             ObjectMapper objectMapper,
+                             @Value("${stardylog.export.on-startup:false}") boolean exportOnStartup,
+                             @Value("${stardylog.export.dir:./export/study_logs}") Path dir,
+                             @Value("${stardylog.export.format:csv}") String format,
+                             @Value("${stardylog.export.rows-per-file:5000000}") long rowsPerFile) {
+        this.userRepository = userRepository;
+        this.studyLogQueryService = studyLogQueryService;
+        this.objectMapper = objectMapper;
+        this.exportOnStartup = exportOnStartup;
+        this.dir = dir;
+        this.format = StudyLogExportFormat.parse(format);
+        if (this.format == StudyLogExportFormat.BINARY) {
+            throw new IllegalArgumentException("stardylog.export.format must be csv or ndjson");
+        }
+        this.rowsPerFile = rowsPerFile;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (exportOnStartup) {
+            exportAll();
+        }
+    }
+
+    public void exportAll() throws IOException {
+        Files.createDirectories(dir);
+        Properties checkpoint = readCheckpoint();
+        String lastUid = checkpoint.getProperty("lastUid");
+        int part = Integer.parseInt(checkpoint.getProperty("nextPart", "0"));
+        try (var stale = Files.newDirectoryStream(dir, "*.tmp")) {
+            for (Path tmp : stale) Files.delete(tmp);
+        }
+
+        Part current = null;
+        long users = 0;
+        long total = 0;
+        try {
+            for (String uid : userRepository.findUidsAfter(lastUid != null ? lastUid : "")) {
+                if (current == null) current = new Part(part);
+                Part target = current;
+                total += studyLogQueryService.streamRange(uid, StudyLogQueryService.MIN_TIME, StudyLogQueryService.MAX_TIME, row -> {
+                    try {
+                        target.writer.write(uid, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    target.rows++;
+                });
+                users++;
+                if (current.rows >= rowsPerFile) {
+                    current.commit(uid);
+                    current = null;
+                    part++;
+                }
+                lastUid = uid;
+            }
+            if (current != null) {
+                current.commit(lastUid);
+                current = null;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (current != null) current.abandon();
+        }
+        log.info("exported {} study logs of {} users to {}", total, users, dir);
+    }
+
+    private Properties readCheckpoint() throws IOException {
+        Properties checkpoint = new Properties();
+        Path file = dir.resolve(CHECKPOINT);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                checkpoint.load(in);
+            }
+        }
+        return checkpoint;
+    }
+
+    private void writeCheckpoint(String lastUid, int nextPart) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("lastUid", lastUid);
+        checkpoint.setProperty("nextPart", Integer.toString(nextPart));
+        Path tmp = dir.resolve(CHECKPOINT + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            checkpoint.store(out, null);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private final class Part {
+        private final int index;
+        private final Path tmp;
+        private final StudyLogExportFormat.RowWriter writer;
+        private long rows;
+
+        private Part(int index) throws IOException {
+            this.index = index;
+            this.tmp = dir.resolve(fileName() + ".tmp");
+            OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024), 8192);
+            this.writer = format.open(out, objectMapper, true);
+        }
+
+        private String fileName() {
+            return String.format("part-%05d.%s.gz", index, format.extension());
+        }
+
+        // 다 쓴 파일을 내보내고, 여기까지 끝난 사용자를 checkpoint에 남긴다
+        private void commit(String lastUid) throws IOException {
+            writer.close();
+            Files.move(tmp, dir.resolve(fileName()), StandardCopyOption.ATOMIC_MOVE);
+            writeCheckpoint(lastUid, index + 1);
+            log.debug("export part {} written: {} rows, through user {}", fileName(), rows, lastUid);
+        }
+
+        private void abandon() {
+            try {
+                writer.close();
+                Files.deleteIfExists(tmp);
+            } catch (IOException e) {
+                log.warn("failed to remove unfinished export part {}", tmp, e);
+            }
+        }
+    }
+}
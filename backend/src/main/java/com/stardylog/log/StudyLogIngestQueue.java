@@ -0,0 +1,221 @@
+package com.stardylog.log;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stardylog.api.dto.StudyLogBatchStatusResponse;
+import com.stardylog.api.dto.StudyLogIngestResponse;
+import com.stardylog.api.dto.StudyLogRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 비동기(write-behind) 공부 기록 저장 큐
+// - POST는 검증 후 큐에 넣고 바로 202 + batchToken 반환, 큐가 가득 차면 거절(429)
+// - writer 스레드가 여러 사용자의 배치를 모아 한 트랜잭션 / 한 번의 대량 INSERT로 저장
+//   묶음 저장이 실패하면 배치를 하나씩 다시 저장한다 (잘못된 배치 하나가 같이 묶인 다른 사용자의 배치까지 실패시키지 않게)
+// - 종료 시 새 배치는 받지 않고, 큐에 남은 배치를 모두 저장한 뒤 멈춘다
+// stardylog.ingest.async.enabled=true 일 때만 동작
+@Slf4j
+@Component
+public class StudyLogIngestQueue implements SmartLifecycle, MeterBinder {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final StudyLogIngestService ingestService;
+    private final boolean enabled;
+    private final int writerThreads;
+    private final int maxBatchRows;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<PendingBatch> queue;
+    private final Cache<String, StudyLogBatchStatusResponse> statuses;
+
+    // offer는 읽기 잠금, stop은 쓰기 잠금: 종료가 시작된 뒤에는 큐에 들어가는 배치가 없다
+    // (writer가 모두 끝난 뒤에 들어온 배치가 토큰만 받고 저장되지 않는 일이 없게)
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private ExecutorService writers;
+
+    public StudyLogIngestQueue(StudyLogIngestService ingestService,
+                               @Value("${stardylog.ingest.async.enabled:false}") boolean enabled,
+                               @Value("${stardylog.ingest.async.queue-capacity:10000}") int queueCapacity,
+                               @Value("${stardylog.ingest.async.writer-threads:2}") int writerThreads,
+                               @Value("${stardylog.ingest.async.max-batch-rows:5000}") int maxBatchRows,
+                               @Value("${stardylog.ingest.async.shutdown-timeout:PT30S}") Duration shutdownTimeout,
+                               @Value("${stardylog.ingest.async.status-ttl:PT1H}") Duration statusTtl) {
+        this.ingestService = ingestService;
+        this.enabled = enabled;
+        this.writerThreads = writerThreads;
+        this.maxBatchRows = maxBatchRows;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(queueCapacity * 10L)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 큐에 넣었으면 batchToken, 가득 찼거나 종료 중이면 null
+    public String offer(String uid, List<StudyLogRequest> requests) {
+        acceptLock.readLock().lock();
+        try {
+            if (!running) return null;
+            String token = UUID.randomUUID().toString();
+            statuses.put(token, StudyLogBatchStatusResponse.queued(token, uid));
+            if (!queue.offer(new PendingBatch(token, new StudyLogIngestService.Batch(uid, List.copyOf(requests))))) {
+                statuses.invalidate(token);
+                return null;
+            }
+            return token;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    // 본인 배치의 상태만 조회 가능 (만료/타인 배치는 null)
+    public StudyLogBatchStatusResponse status(String uid, String token) {
+        StudyLogBatchStatusResponse status = statuses.getIfPresent(token);
+        return status != null && status.uid().equals(uid) ? status : null;
+    }
+
+    private void writerLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBatch first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                writeCoalesced(drainFrom(first));
+            } catch (InterruptedException e) {
+                return; // shutdownNow: 제한 시간 초과
+            }
+        }
+    }
+
+    // 첫 배치에 이어 큐에 쌓인 배치를 행 수 한도까지 한꺼번에 가져온다
+    private List<PendingBatch> drainFrom(PendingBatch first) {
+        List<PendingBatch> drained = new ArrayList<>();
+        drained.add(first);
+        int rows = first.batch().requests().size();
+        while (rows < maxBatchRows) {
+            PendingBatch next = queue.poll();
+            if (next == null) break;
+            drained.add(next);
+            rows += next.batch().requests().size();
+        }
+        return drained;
+    }
+
+    private void writeCoalesced(List<PendingBatch> drained) {
+        if (drained.size() > 1) {
+            try {
+                List<StudyLogIngestResponse> results = ingestService.ingestAll(drained.stream().map(PendingBatch::batch).toList());
+                for (int i = 0; i < drained.size(); i++) {
+                    complete(drained.get(i), results.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Coalesced study log write failed ({} batches), retrying one batch at a time", drained.size(), e);
+            }
+        }
+        drained.forEach(this::writeOne);
+    }
+
+    private void writeOne(PendingBatch p) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                complete(p, ingestService.ingestAll(List.of(p.batch())).get(0));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    // 클라이언트는 FAILED를 보면 같은 기록을 다시 보내면 된다 (저장은 멱등)
+                    log.error("Async study log write failed after {} attempts (uid={})", attempt, p.batch().uid(), e);
+                    statuses.put(p.token(), StudyLogBatchStatusResponse.failed(p.token(), p.batch().uid()));
+                    return;
+                }
+                sleepQuietly(attempt * 200L);
+            }
+        }
+    }
+
+    private void complete(PendingBatch p, StudyLogIngestResponse result) {
+        statuses.put(p.token(), StudyLogBatchStatusResponse.completed(p.token(), p.batch().uid(), result));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) return;
+        running = true;
+        AtomicInteger seq = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread t = new Thread(r, "study-log-writer-" + seq.incrementAndGet());
+            t.setDaemon(false);
+            return t;
+        });
+        for (int i = 0; i < writerThreads; i++) {
+            writers.submit(this::writerLoop);
+        }
+    }
+
+    // 새 배치 접수를 막고, 남은 배치를 모두 저장할 때까지 기다린다
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            if (!running) return;
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Async study log queue not drained in time, remaining batches: {}", queue.size());
+                writers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("study.logs.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Study log batches waiting for the async writers")
+                .register(registry);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record PendingBatch(String token, StudyLogIngestService.Batch batch) {}
+}
@@ -0,0 +1,160 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogIngestResponse;
+import com.stardylog.api.dto.StudyLogRequest;
+import com.stardylog.ranking.RankingService;
+import com.stardylog.stats.StudyStatsService;
+import com.stardylog.subject.SubjectRepository;
+import com.stardylog.subject.SubjectResolver;
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.User;
+import com.stardylog.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 공부 기록 저장 + 통계 롤업 갱신을 한 트랜잭션으로 처리
+// 재전송으로 같은 구간(StudyLogKey)이 다시 와도 한 번만 저장하고, 저장/건너뜀 개수를 돌려준다
+// 과목은 이름을 SubjectResolver로 과목 id로 바꿔서 저장한다
+@Service
+@RequiredArgsConstructor
+public class StudyLogIngestService {
+
+    private static final int KEY_QUERY_CHUNK = 500;
+
+    private final UserRepository userRepository;
+    private final StudyLogRepository studyLogRepository;
+    private final StudyLogBulkWriter studyLogBulkWriter;
+    private final StudyStatsService statsService;
+    private final ChangeVersionAllocator changeVersionAllocator;
+    private final SubjectResolver subjectResolver;
+    private final SubjectRepository subjectRepository;
+    private final StudyLogArchiveStore archiveStore;
+    private final RankingService rankingService;
+
+    @Transactional
+    public StudyLogIngestResponse ingest(String uid, List<StudyLogRequest> requests) {
+        StudyLogIngestResponse result = ingestAll(List.of(new Batch(uid, requests))).get(0);
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return result;
+    }
+
+    // 여러 배치(여러 사용자)를 한 트랜잭션, 한 번의 대량 INSERT로 저장 (비동기 저장 큐에서 사용)
+    // 결과는 batches와 같은 순서이며, 존재하지 않는 사용자의 배치는 null
+    @Transactional
+    public List<StudyLogIngestResponse> ingestAll(List<Batch> batches) {
+        // uid 순서로 잠가서 여러 트랜잭션이 동시에 돌아도 교착 상태가 생기지 않게 한다
+        // (사용자 행 잠금으로 같은 사용자의 동시 재전송이 중복 판별을 동시에 통과하지 못함)
+        Map<String, User> users = new HashMap<>();
+        for (String uid : new TreeSet<>(batches.stream().map(Batch::uid).toList())) {
+            userRepository.findByIdForUpdate(uid).ifPresent(u -> users.put(uid, u));
+        }
+
+        // 사용자별로 이미 있는(또는 이번에 저장할) 키
+        Map<String, Set<StudyLogKey>> seenKeys = new HashMap<>();
+        Map<String, List<Pending>> newByUser = new LinkedHashMap<>();
+        List<StudyLogIngestResponse> results = new ArrayList<>();
+
+        for (int i = 0; i < batches.size(); i++) {
+            Batch batch = batches.get(i);
+            results.add(null);
+            if (!users.containsKey(batch.uid())) continue;
+
+            // 요청 안에서의 중복 제거
+            Map<StudyLogKey, StudyLogRequest> unique = new LinkedHashMap<>();
+            for (StudyLogRequest req : batch.requests()) {
+                unique.putIfAbsent(StudyLogKey.of(req), req);
+            }
+
+            // 이미 저장된 구간 제외
+            Set<StudyLogKey> seen = seenKeys.computeIfAbsent(batch.uid(), k -> new HashSet<>());
+            seen.addAll(findExistingKeys(batch.uid(), unique.keySet()));
+
+            List<Pending> newRequests = newByUser.computeIfAbsent(batch.uid(), k -> new ArrayList<>());
+            for (var entry : unique.entrySet()) {
+                // 보관 파일로 옮겨진 구간은 읽기 전용 (이미 저장된 것으로 보고 건너뜀)
+                if (archiveStore.isArchived(entry.getKey().startTime())) continue;
+                if (!seen.add(entry.getKey())) continue;
+                newRequests.add(new Pending(i, entry.getValue()));
+            }
+        }
+
+        List<StudyLog> logsToSave = new ArrayList<>();
+        Map<StudyLog, Integer> batchOf = new IdentityHashMap<>();
+        newByUser.forEach((uid, newRequests) -> {
+            if (newRequests.isEmpty()) return;
+            User user = users.get(uid);
+            Map<String, Long> subjectIds = subjectResolver.resolve(uid, newRequests.stream().map(p -> p.request().subjectName()).distinct().toList());
+            // 델타 동기화용 변경 번호를 저장 순서대로 부여
+            long version = changeVersionAllocator.allocate(uid, newRequests.size());
+            for (Pending p : newRequests) {
+                StudyLog log = toEntity(user, subjectIds.get(p.request().subjectName()), p.request());
+                log.setChangeVersion(version++);
+                logsToSave.add(log);
+                batchOf.put(log, p.batchIndex());
+            }
+        });
+
+        // 실제로 INSERT된 기록만 통계/랭킹과 저장 개수에 반영한다
+        List<StudyLog> inserted = studyLogBulkWriter.write(logsToSave);
+        int[] insertedPerBatch = new int[batches.size()];
+        Map<String, List<StudyStatsService.Interval>> intervalsByUser = new LinkedHashMap<>();
+        for (StudyLog l : inserted) {
+            insertedPerBatch[batchOf.get(l)]++;
+            intervalsByUser.computeIfAbsent(l.getUser().getUid(), k -> new ArrayList<>())
+                    .add(new StudyStatsService.Interval(l.getSubject().getId(), l.getIntervalType(), l.getDurationSeconds(), l.getStartTime()));
+        }
+        intervalsByUser.forEach((uid, intervals) -> {
+            statsService.record(uid, intervals);
+            rankingService.record(uid, intervals); // 커밋 후 메모리 랭킹에 반영
+        });
+
+        for (int i = 0; i < batches.size(); i++) {
+            if (!users.containsKey(batches.get(i).uid())) continue;
+            int count = insertedPerBatch[i];
+            results.set(i, new StudyLogIngestResponse(count, batches.get(i).requests().size() - count));
+        }
+        return results;
+    }
+
+    private StudyLog toEntity(User user, Long subjectId, StudyLogRequest req) {
+        return StudyLog.builder()
+                .user(user)
+                .subject(subjectRepository.getReferenceById(subjectId))
+                .sessionId(req.sessionId())
+                .intervalType(req.intervalType())
+                .durationSeconds(req.durationSeconds())
+                .startTime(StudyLogKey.truncate(req.startTime()))
+                .endTime(StudyLogKey.truncate(req.endTime()))
+                .build();
+    }
+
+    private Set<StudyLogKey> findExistingKeys(String uid, Set<StudyLogKey> keys) {
+        List<String> sessionIds = keys.stream().map(StudyLogKey::sessionId).distinct().toList();
+        Set<StudyLogKey> existing = new HashSet<>();
+        for (int i = 0; i < sessionIds.size(); i += KEY_QUERY_CHUNK) {
+            existing.addAll(studyLogRepository.findKeys(uid, sessionIds.subList(i, Math.min(i + KEY_QUERY_CHUNK, sessionIds.size()))));
+        }
+        return existing;
+    }
+
+    // 한 사용자가 한 번에 보낸 기록 묶음
+    public record Batch(String uid, List<StudyLogRequest> requests) {}
+
+    // 저장할 기록과 그 기록이 온 배치 (batches 안의 위치)
+    private record Pending(int batchIndex, StudyLogRequest request) {}
+}
@@ -0,0 +1,23 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// 공부 기록의 멱등 키: 한 사용자 안에서 (sessionId, intervalType, startTime)이 같으면 같은 구간
+// startTime은 DB(DATETIME(6)) 정밀도에 맞춰 마이크로초로 자른다
+public record StudyLogKey(String sessionId, String intervalType, Instant startTime) {
+
+    public StudyLogKey {
+        startTime = truncate(startTime);
+    }
+
+    public static StudyLogKey of(StudyLogRequest req) {
+        return new StudyLogKey(req.sessionId(), req.intervalType(), req.startTime());
+    }
+
+    public static Instant truncate(Instant instant) {
+        return instant == null ? null : instant.truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.stardylog.log;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// 공부 기록 API의 배치 크기 / 조회 결과 크기 히스토그램
+@Component
+public class StudyLogMetrics {
+
+    private final DistributionSummary ingestBatchSize;
+    private final DistributionSummary readResultSize;
+
+    public StudyLogMetrics(MeterRegistry registry) {
+        this.ingestBatchSize = DistributionSummary.builder("study.logs.ingest.batch.size")
+                .description("Intervals per POST /api/logs/study request")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.readResultSize = DistributionSummary.builder("study.logs.read.result.size")
+                .description("Rows returned per GET /api/logs/study request")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordIngestBatch(int rows) {
+        ingestBatchSize.record(rows);
+    }
+
+    public void recordReadResult(long rows) {
+        readResultSize.record(rows);
+    }
+}
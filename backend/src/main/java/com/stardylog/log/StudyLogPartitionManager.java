@@ -0,0 +1,246 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+// study_logs 월 단위 파티션 관리 (파티션 테이블로 만드는 것은 V2__convert_baseline_schema.sql)
+// - 앞으로 months-ahead개월치 파티션을 p_future(MAXVALUE)에서 미리 떼어 만든다 (비어 있는 p_future만 나누므로 가볍다)
+// - stardylog.logs.archive.enabled=true면 retention-months보다 오래된 파티션을 보관 파일로 내보낸 뒤 DROP
+//   (내보내기 -> study_log_archives 등록 -> DROP PARTITION 순서라 중간에 실패해도 다시 돌리면 이어서 진행)
+//   DROP은 등록 후 drop-grace(기본: 보관 목록 refresh-interval의 2배)가 지난 뒤의 실행에서 한다.
+//   그동안 모든 노드가 새 horizon을 읽어서, DROP된 구간을 DB에서 (빈 결과로) 읽는 노드가 없다.
+//   DROP 직전에 행 수가 등록 때와 다르면(horizon을 모르던 노드가 그 사이 저장) 다시 내보내고 기다린다
+// 파티션 경계는 UTC 월초. 여러 노드가 동시에 돌지 않도록 MySQL 네임드 락을 잡는다
+@Slf4j
+@Component
+public class StudyLogPartitionManager {
+
+    static final String FUTURE_PARTITION = "p_future";
+    private static final String LOCK_NAME = "stardylog.study_logs.partitions";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_]+");
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final String EXPORT_SQL = """
+            select l.id, l.user_uid, l.subject_id, coalesce(s.name, l.subject_name) as subject_name,
+                   l.session_id, l.interval_type, l.duration_seconds, l.start_time, l.end_time
+            from study_logs partition (%s) l left join subjects s on s.id = l.subject_id
+            order by cast(l.user_uid as binary), l.start_time, l.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StudyLogArchiveRepository archiveRepository;
+    private final StudyLogArchiveStore archiveStore;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean archiveEnabled;
+    private final Duration dropGrace;
+
+    public StudyLogPartitionManager(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    StudyLogArchiveRepository archiveRepository,
+                                    StudyLogArchiveStore archiveStore,
+                                    @Value("${stardylog.logs.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${stardylog.logs.partitions.retention-months:24}") int retentionMonths,
+                                    @Value("${stardylog.logs.archive.enabled:false}") boolean archiveEnabled,
+                                    @Value("${stardylog.logs.archive.refresh-interval:PT5M}") Duration refreshInterval,
+                                    @Value("${stardylog.logs.archive.drop-grace:#{null}}") Duration dropGrace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archiveRepository = archiveRepository;
+        this.archiveStore = archiveStore;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveEnabled = archiveEnabled;
+        this.dropGrace = dropGrace != null ? dropGrace : refreshInterval.multipliedBy(2);
+    }
+
+    @Scheduled(cron = "${stardylog.logs.partitions.cron:0 30 3 * * *}", zone = "UTC")
+    public void maintain() {
+        // GET_LOCK/RELEASE_LOCK은 같은 커넥션에서 해야 하므로 커넥션 하나를 잡고 있는다
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("select get_lock(?, 0)")) {
+                ps.setString(1, LOCK_NAME);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        log.debug("study_logs partition maintenance is running on another node");
+                        return null;
+                    }
+                }
+            }
+            try {
+                maintainLocked(YearMonth.now(ZoneOffset.UTC));
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement("select release_lock(?)")) {
+                    ps.setString(1, LOCK_NAME);
+                    ps.executeQuery().close();
+                }
+            }
+            return null;
+        });
+    }
+
+    void maintainLocked(YearMonth now) {
+        List<Partition> partitions = partitions();
+        if (partitions.isEmpty()) {
+            log.info("study_logs is not partitioned; skipping partition maintenance (see V2__convert_baseline_schema.sql)");
+            return;
+        }
+        if (!FUTURE_PARTITION.equals(partitions.get(partitions.size() - 1).name())) {
+            log.warn("study_logs has no {} partition; skipping partition maintenance", FUTURE_PARTITION);
+            return;
+        }
+        createFuturePartitions(partitions, now);
+        if (archiveEnabled) {
+            archiveExpired(partitions(), now);
+        }
+    }
+
+    private void createFuturePartitions(List<Partition> partitions, YearMonth now) {
+        // p_future 하나뿐이면 이번 달부터 만든다
+        Instant last = partitions.size() >= 2 ? partitions.get(partitions.size() - 2).upperBound() : monthStart(now);
+        Instant target = monthStart(now.plusMonths(monthsAhead + 1L));
+        while (last.isBefore(target)) {
+            YearMonth month = YearMonth.from(last.atOffset(ZoneOffset.UTC));
+            Instant next = monthStart(month.plusMonths(1));
+            jdbcTemplate.execute("""
+                    alter table study_logs reorganize partition %s into (
+                        partition %s values less than ('%s'),
+                        partition %s values less than (maxvalue))
+                    """.formatted(FUTURE_PARTITION, PARTITION_NAME.format(month), BOUND.format(next.atOffset(ZoneOffset.UTC)), FUTURE_PARTITION));
+            log.info("created study_logs partition {}", PARTITION_NAME.format(month));
+            last = next;
+        }
+    }
+
+    // 가장 오래된 파티션부터 보존 기간이 지난 것만 차례로 보관 (보관 구간이 항상 앞에서부터 연속되도록)
+    private void archiveExpired(List<Partition> partitions, YearMonth now) {
+        Instant cutoff = monthStart(now.minusMonths(retentionMonths));
+        Instant horizon = archiveStore.horizon();
+        Instant lower = horizon != null ? horizon : StudyLogQueryService.MIN_TIME;
+        for (Partition p : partitions) {
+            if (p.upperBound() == null || p.upperBound().isAfter(cutoff)) break;
+            archive(p, lower);
+            lower = p.upperBound();
+        }
+    }
+
+    private void archive(Partition p, Instant lower) {
+        if (!SAFE_NAME.matcher(p.name()).matches()) {
+            throw new IllegalStateException("unexpected partition name " + p.name());
+        }
+        StudyLogArchive registered = archiveRepository.findById(p.name()).orElse(null);
+        if (registered != null && registered.getRowCount() != countRows(p.name())) {
+            log.warn("study_logs partition {} changed after it was archived; archiving it again", p.name());
+            registered = null;
+        }
+        if (registered == null) {
+            long started = System.nanoTime();
+            String fileName;
+            long rows;
+            try (StudyLogArchiveStore.Writer writer = archiveStore.newWriter(p.name())) {
+                export(p.name(), writer);
+                rows = writer.rows();
+                fileName = writer.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot archive partition " + p.name(), e);
+            }
+            transactionTemplate.executeWithoutResult(status -> archiveRepository.save(StudyLogArchive.builder()
+                    .partitionName(p.name())
+                    .rangeStart(lower)
+                    .rangeEnd(p.upperBound())
+                    .fileName(fileName)
+                    .rowCount(rows)
+                    .archivedAt(Instant.now())
+                    .build()));
+            // 이 노드는 바로, 다른 노드는 다음 refresh에서 이 구간을 보관 파일로 읽는다
+            archiveStore.refresh();
+            log.info("archived study_logs partition {} ({} rows) to {} in {} ms; dropping it after {}",
+                    p.name(), rows, fileName, (System.nanoTime() - started) / 1_000_000, dropGrace);
+            return;
+        }
+        if (registered.getArchivedAt().plus(dropGrace).isAfter(Instant.now())) {
+            log.info("study_logs partition {} is archived; waiting until other nodes see it before dropping", p.name());
+            return;
+        }
+        jdbcTemplate.execute("alter table study_logs drop partition " + p.name());
+        log.info("dropped study_logs partition {}", p.name());
+    }
+
+    private long countRows(String partition) {
+        Long rows = jdbcTemplate.queryForObject("select count(*) from study_logs partition (%s)".formatted(partition), Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    private void export(String partition, StudyLogArchiveStore.Writer writer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_SQL.formatted(partition), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE); // MySQL 스트리밍 커서
+            return ps;
+        }, rs -> {
+            StudyLogResponse row = new StudyLogResponse(
+                    rs.getLong("id"),
+                    rs.getObject("subject_id", Long.class),
+                    rs.getString("subject_name"),
+                    rs.getString("session_id"),
+                    rs.getString("interval_type"),
+                    rs.getInt("duration_seconds"),
+                    toInstant(rs.getTimestamp("start_time", Calendar.getInstance(UTC))),
+                    toInstant(rs.getTimestamp("end_time", Calendar.getInstance(UTC))));
+            try {
+                writer.add(rs.getString("user_uid"), row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    List<Partition> partitions() {
+        return jdbcTemplate.query("""
+                select partition_name, partition_description
+                from information_schema.partitions
+                where table_schema = database() and table_name = 'study_logs' and partition_name is not null
+                order by partition_ordinal_position
+                """, (rs, i) -> new Partition(rs.getString(1), parseBound(rs.getString(2))));
+    }
+
+    // RANGE COLUMNS 경계 값: '2025-02-01 00:00:00' 또는 MAXVALUE (MAXVALUE면 null)
+    static Instant parseBound(String description) {
+        if (description == null || "MAXVALUE".equalsIgnoreCase(description.trim())) return null;
+        return LocalDateTime.parse(description.replace("'", "").trim(), BOUND).toInstant(ZoneOffset.UTC);
+    }
+
+    private static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+
+    record Partition(String name, Instant upperBound) {}
+}
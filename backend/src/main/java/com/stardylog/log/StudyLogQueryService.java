@@ -0,0 +1,110 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// 공부 기록 조회 (기간 필터 + 키셋 페이지 / DB 커서 스트리밍)
+// 보관 기준 시각(horizon) 이전 구간은 study_logs 대신 보관 파일(StudyLogArchiveStore)에서 읽어 앞에 이어 붙인다.
+// 보관 구간이 DB 구간보다 항상 앞이므로 (startTime, id) 순서가 그대로 유지된다
+@Service
+@RequiredArgsConstructor
+public class StudyLogQueryService {
+
+    // from/to를 생략하면 전체 기간
+    public static final Instant MIN_TIME = Instant.EPOCH;
+    public static final Instant MAX_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final StudyLogRepository studyLogRepository;
+    private final StudyLogArchiveStore archiveStore;
+
+    @Transactional(readOnly = true)
+    public List<StudyLogResponse> findPage(String uid, Instant from, Instant to, StudyLogCursor after, int limit) {
+        List<StudyLogResponse> page = new ArrayList<>(Math.min(limit, 1024));
+        Instant liveFrom = from;
+        Instant horizon = archiveStore.horizon();
+        if (horizon != null && from.isBefore(horizon)) {
+            liveFrom = horizon.isAfter(to) ? to : horizon;
+            if (after == null || after.startTime().isBefore(horizon)) {
+                archiveStore.read(uid, from, liveFrom, row -> {
+                    if (after != null && !isAfter(row, after)) return true;
+                    page.add(row);
+                    return page.size() < limit;
+                });
+            }
+        }
+        if (page.size() >= limit || !liveFrom.isBefore(to)) return page;
+
+        // 커서가 보관 구간 안이면 DB 구간은 처음부터
+        boolean cursorInLive = after != null && !after.startTime().isBefore(liveFrom);
+        Instant afterTime = cursorInLive ? after.startTime() : liveFrom;
+        long afterId = cursorInLive ? after.id() : Long.MIN_VALUE;
+        page.addAll(studyLogRepository.findPage(uid, liveFrom, to, afterTime, afterId, Limit.of(limit - page.size())));
+        return page;
+    }
+
+    // 결과 전체를 리스트로 만들지 않고 한 행씩 consumer에 넘긴다
+    @Transactional(readOnly = true)
+    public long streamRange(String uid, Instant from, Instant to, Consumer<StudyLogResponse> consumer) {
+        return streamRange(uid, from, to, null, Long.MAX_VALUE, row -> {
+            consumer.accept(row);
+            return true;
+        });
+    }
+
+    // after 다음 행부터 최대 maxRows행 (내보내기 이어받기). consumer가 false를 돌려주면 멈춘다
+    @Transactional(readOnly = true)
+    public long streamRange(String uid, Instant from, Instant to, StudyLogCursor after, long maxRows,
+                            Predicate<StudyLogResponse> consumer) {
+        long[] count = {0};
+        boolean[] stopped = {false};
+        Instant liveFrom = from;
+        Instant horizon = archiveStore.horizon();
+        if (horizon != null && from.isBefore(horizon)) {
+            liveFrom = horizon.isAfter(to) ? to : horizon;
+            if (after == null || after.startTime().isBefore(horizon)) {
+                archiveStore.read(uid, from, liveFrom, row -> {
+                    if (after != null && !isAfter(row, after)) return true;
+                    count[0]++;
+                    if (!consumer.test(row) || count[0] >= maxRows) {
+                        stopped[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+            }
+        }
+        if (stopped[0] || !liveFrom.isBefore(to)) return count[0];
+
+        // 커서가 보관 구간 안이면 DB 구간은 처음부터
+        boolean cursorInLive = after != null && !after.startTime().isBefore(liveFrom);
+        Instant afterTime = cursorInLive ? after.startTime() : liveFrom;
+        long afterId = cursorInLive ? after.id() : Long.MIN_VALUE;
+        long remaining = maxRows - count[0];
+        Limit limit = remaining < Integer.MAX_VALUE ? Limit.of((int) remaining) : Limit.unlimited();
+        try (Stream<StudyLogResponse> rows = !cursorInLive && limit.isUnlimited()
+                ? studyLogRepository.streamRange(uid, liveFrom, to)
+                : studyLogRepository.streamRangeAfter(uid, liveFrom, to, afterTime, afterId, limit)) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                count[0]++;
+                if (!consumer.test(it.next())) break;
+            }
+        }
+        return count[0];
+    }
+
+    private static boolean isAfter(StudyLogResponse row, StudyLogCursor cursor) {
+        int c = row.startTime().compareTo(cursor.startTime());
+        return c > 0 || (c == 0 && row.id() > cursor.id());
+    }
+}
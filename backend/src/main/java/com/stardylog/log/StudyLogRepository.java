@@ -1,9 +1,92 @@
 package com.stardylog.log;
 
+import com.stardylog.api.dto.StudyLogResponse;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+// 과목 이름은 subjects를 조인해서 읽는다 (subjects PK 조인, subject_id가 아직 없는 레거시 행은 subject_name)
 public interface StudyLogRepository extends JpaRepository<StudyLog, Long> {
-    List<StudyLog> findByUserUid(String UId);
+
+    // 중복 판별용: 해당 세션들에 이미 저장된 구간의 키
+    @Query("""
+            select new com.stardylog.log.StudyLogKey(l.sessionId, l.intervalType, l.startTime)
+            from StudyLog l
+            where l.user.uid = :uid and l.sessionId in :sessionIds
+            """)
+    List<StudyLogKey> findKeys(String uid, Collection<String> sessionIds);
+
+    // 델타 동기화: since 이후 변경된 기록 (change_version 순)
+    @Query("""
+            select new com.stardylog.log.StudyLogChange(
+                l.id, s.id, coalesce(s.name, l.subjectName), l.sessionId, l.intervalType, l.durationSeconds, l.startTime, l.endTime, l.changeVersion)
+            from StudyLog l left join l.subject s
+            where l.user.uid = :uid and l.changeVersion > :since
+            order by l.changeVersion asc
+            """)
+    List<StudyLogChange> findChanges(String uid, long since, Limit limit);
+
+    // 변경 번호 도입 전에 저장된 기록 (ChangeVersionBackfillJob)
+    @Query("select l.id from StudyLog l where l.user.uid = :uid and l.changeVersion = 0 order by l.startTime asc, l.id asc")
+    List<Long> findUnversionedIds(String uid);
+
+    // 키셋 페이지: (afterTime, afterId) 다음 행부터 limit개 (startTime, id 순)
+    @Query("""
+            select new com.stardylog.api.dto.StudyLogResponse(
+                l.id, s.id, coalesce(s.name, l.subjectName), l.sessionId, l.intervalType, l.durationSeconds, l.startTime, l.endTime)
+            from StudyLog l left join l.subject s
+            where l.user.uid = :uid
+              and l.startTime >= :from and l.startTime < :to
+              and (l.startTime > :afterTime or (l.startTime = :afterTime and l.id > :afterId))
+            order by l.startTime asc, l.id asc
+            """)
+    List<StudyLogResponse> findPage(String uid, Instant from, Instant to, Instant afterTime, long afterId, Limit limit);
+
+    // 전체 구간 스트리밍: MySQL에서 fetchSize=Integer.MIN_VALUE면 행 단위로 커서에서 읽어 온다
+    // (반드시 트랜잭션 안에서 소비하고 닫아야 함)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("""
+            select new com.stardylog.api.dto.StudyLogResponse(
+                l.id, s.id, coalesce(s.name, l.subjectName), l.sessionId, l.intervalType, l.durationSeconds, l.startTime, l.endTime)
+            from StudyLog l left join l.subject s
+            where l.user.uid = :uid
+              and l.startTime >= :from and l.startTime < :to
+            order by l.startTime asc, l.id asc
+            """)
+    Stream<StudyLogResponse> streamRange(String uid, Instant from, Instant to);
+
+    // 내보내기 이어받기: (afterTime, afterId) 다음 행부터 limit행 스트리밍
+    // (MySQL 스트리밍 결과는 닫을 때 남은 행을 끝까지 읽으므로, 중간에 멈출 구간은 limit으로 잘라서 요청한다)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("""
+            select new com.stardylog.api.dto.StudyLogResponse(
+                l.id, s.id, coalesce(s.name, l.subjectName), l.sessionId, l.intervalType, l.durationSeconds, l.startTime, l.endTime)
+            from StudyLog l left join l.subject s
+            where l.user.uid = :uid
+              and l.startTime >= :from and l.startTime < :to
+              and (l.startTime > :afterTime or (l.startTime = :afterTime and l.id > :afterId))
+            order by l.startTime asc, l.id asc
+            """)
+    Stream<StudyLogResponse> streamRangeAfter(String uid, Instant from, Instant to, Instant afterTime, long afterId, Limit limit);
+
+    // subject_id 백필 (StudyLogSubjectBackfillJob): 아직 과목 id가 없는 레거시 기록의 과목 이름들
+    @Query("select distinct l.subjectName from StudyLog l where l.user.uid = :uid and l.subject is null and l.subjectName is not null")
+    List<String> findUnresolvedSubjectNames(String uid);
+
+    // 한 번에 limit행씩만 바꿔서 짧은 트랜잭션으로 나눠 돌린다 (MySQL UPDATE ... LIMIT)
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            update study_logs set subject_id = :subjectId, subject_name = null
+            where user_uid = :uid and subject_id is null and subject_name = :subjectName
+            limit :limit
+            """)
+    int assignSubject(String uid, String subjectName, long subjectId, int limit);
 }
@@ -0,0 +1,98 @@
+package com.stardylog.log;
+
+import com.stardylog.stats.StudyStatsRebuildJob;
+import com.stardylog.subject.SubjectResolver;
+import com.stardylog.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// subject_id 도입 전 기록(subject_name만 있는 행)을 과목 id 참조로 바꾸는 온라인 백필
+// - 과목 이름 -> id는 저장 경로와 같은 SubjectResolver로 찾는다 (없으면 과목을 만든다)
+// - chunk-size 행씩 짧은 트랜잭션으로 나눠서, 서비스 중에도 기록 저장을 오래 막지 않는다
+// - 사용자 하나가 끝나면 그 사용자의 통계 롤업(subject_id 기준)을 다시 만든다
+// stardylog.subjects.backfill-on-startup=true 로 기동하면 전체 사용자를 처리 (다시 돌려도 남은 행만 처리)
+@Slf4j
+@Component
+public class StudyLogSubjectBackfillJob implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final StudyLogRepository studyLogRepository;
+    private final SubjectResolver subjectResolver;
+    private final StudyStatsRebuildJob statsRebuildJob;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+    private final int chunkSize;
+
+    public StudyLogSubjectBackfillJob(UserRepository userRepository,
+                                      StudyLogRepository studyLogRepository,
+                                      SubjectResolver subjectResolver,
+                                      StudyStatsRebuildJob statsRebuildJob,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${stardylog.subjects.backfill-on-startup:false}") boolean backfillOnStartup,
+                                      @Value("${stardylog.subjects.backfill-chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.studyLogRepository = studyLogRepository;
+        this.subjectResolver = subjectResolver;
+        this.statsRebuildJob = statsRebuildJob;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillOnStartup = backfillOnStartup;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    public void backfillAll() {
+        long rows = 0;
+        for (String uid : userRepository.findAllUids()) {
+            rows += backfill(uid);
+        }
+        log.info("study_logs.subject_id backfilled for {} rows", rows);
+    }
+
+    public long backfill(String uid) {
+        List<String> names = new ArrayList<>();
+        for (String name : studyLogRepository.findUnresolvedSubjectNames(uid)) {
+            // 과목 이름보다 긴 옛 이름은 그대로 둔다 (잘라서 붙이면 다른 과목과 합쳐질 수 있다)
+            if (name.length() > SubjectResolver.MAX_NAME_LENGTH) {
+                log.warn("Skipping subject_id backfill for an over-long subject name of user {}", uid);
+                continue;
+            }
+            names.add(name);
+        }
+        if (names.isEmpty()) return 0;
+
+        // 과목 생성이 겹치지 않도록 저장 경로와 마찬가지로 사용자 행을 잠그고 찾는다
+        Map<String, Long> subjectIds = transactionTemplate.execute(status -> {
+            if (userRepository.findByIdForUpdate(uid).isEmpty()) return Map.<String, Long>of();
+            return subjectResolver.resolveCreatingMissing(uid, names);
+        });
+
+        long rows = 0;
+        for (var entry : subjectIds.entrySet()) {
+            int updated;
+            do {
+                updated = transactionTemplate.execute(status ->
+                        studyLogRepository.assignSubject(uid, entry.getKey(), entry.getValue(), chunkSize));
+                rows += updated;
+            } while (updated == chunkSize);
+        }
+        if (!subjectIds.isEmpty()) {
+            statsRebuildJob.rebuild(uid);
+        }
+        log.debug("backfilled subject_id for {} rows of user {}", rows, uid);
+        return rows;
+    }
+}
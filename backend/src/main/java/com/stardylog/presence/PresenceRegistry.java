@@ -0,0 +1,125 @@
+package com.stardylog.presence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 지금 공부 중인 사용자 (노드 메모리, DB에 쓰지 않는다)
+// - uid 해시로 나눈 stripe마다 맵 + 락 하나. 하트비트끼리는 같은 stripe일 때만 경쟁한다
+// - 상태가 바뀐 uid(시작/종료/만료)는 stripe별 changed에 모아 두고, drainChanges()로 한 번에 꺼낸다
+// - 하트비트는 lastSeen만 갱신하므로 변경으로 치지 않는다 (구독자에게 보낼 것이 없다)
+public class PresenceRegistry {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public PresenceRegistry(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) stripes[i] = new Stripe();
+        this.mask = size - 1;
+    }
+
+    public record Presence(String uid, String sessionId, Instant since, Instant lastSeen) {}
+
+    // 세션 시작/하트비트. 새로 공부를 시작했거나 세션이 바뀌었으면 true
+    // (다른 노드에서 시작한 세션의 하트비트가 와도 여기서부터 보이도록 시작으로 처리)
+    public boolean touch(String uid, String sessionId, Instant now) {
+        Stripe stripe = stripeOf(uid);
+        synchronized (stripe) {
+            Presence current = stripe.entries.get(uid);
+            if (current != null && current.sessionId().equals(sessionId)) {
+                stripe.entries.put(uid, new Presence(uid, sessionId, current.since(), now));
+                return false;
+            }
+            Presence started = new Presence(uid, sessionId, now, now);
+            stripe.entries.put(uid, started);
+            stripe.changed.put(uid, started);
+            return true;
+        }
+    }
+
+    // 세션 종료. 이미 다른 세션으로 바뀌었으면 무시
+    public boolean remove(String uid, String sessionId) {
+        Stripe stripe = stripeOf(uid);
+        synchronized (stripe) {
+            Presence current = stripe.entries.get(uid);
+            if (current == null || !current.sessionId().equals(sessionId)) return false;
+            stripe.entries.remove(uid);
+            stripe.changed.put(uid, null);
+            return true;
+        }
+    }
+
+    // lastSeen이 deadline보다 오래된 항목 제거 (앱이 종료 이벤트 없이 끊긴 경우)
+    public int expire(Instant deadline) {
+        int expired = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Presence> it = stripe.entries.values().iterator();
+                while (it.hasNext()) {
+                    Presence presence = it.next();
+                    if (presence.lastSeen().isBefore(deadline)) {
+                        it.remove();
+                        stripe.changed.put(presence.uid(), null);
+                        expired++;
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    // 마지막 drain 이후 상태가 바뀐 uid -> 현재 상태 (공부를 멈췄으면 null)
+    public Map<String, Presence> drainChanges() {
+        Map<String, Presence> changes = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.changed.isEmpty()) continue;
+                changes.putAll(stripe.changed);
+                stripe.changed.clear();
+            }
+        }
+        return changes;
+    }
+
+    public Presence get(String uid) {
+        Stripe stripe = stripeOf(uid);
+        synchronized (stripe) {
+            return stripe.entries.get(uid);
+        }
+    }
+
+    public List<Presence> getAll(Iterable<String> uids) {
+        List<Presence> result = new ArrayList<>();
+        for (String uid : uids) {
+            Presence presence = get(uid);
+            if (presence != null) result.add(presence);
+        }
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(String uid) {
+        int h = uid.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Stripe {
+        private final Map<String, Presence> entries = new HashMap<>();
+        private final Map<String, Presence> changed = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,226 @@
+package com.stardylog.presence;
+
+import com.stardylog.api.dto.PresenceResponse;
+import com.stardylog.presence.PresenceRegistry.Presence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 실시간 공부 중 표시
+// - 앱은 세션 시작/하트비트/종료만 보낸다. 하트비트는 메모리 갱신뿐이라 DB를 건드리지 않는다
+// - 구독자(SSE)는 관심 있는 uid 목록을 정해 두고, tick-interval마다 그동안 바뀐 상태를 한 번에 받는다
+// - 느린 구독자에게는 uid별 마지막 상태만 남겨 두었다가 다음 전송에 합쳐 보낸다 (쌓이지 않는다)
+// - 다른 사용자의 상태는 그 사용자가 공개한 경우에만 보낸다 (PresenceVisibility, 구독 중에 비공개로 바꾸면 그 뒤 변경은 빠진다)
+// 단일 노드 전용: 상태와 구독이 모두 노드 메모리라, 다른 노드로 간 하트비트는 이 노드의 구독자에게 보이지 않는다
+// (sticky 라우팅으로는 부족하다: 보는 사람과 공부하는 사람이 서로 다른 노드일 수 있다. 여러 노드면 공유 저장소/pub-sub 필요)
+@Service
+public class PresenceService implements MeterBinder {
+
+    private final PresenceRegistry registry = new PresenceRegistry(64);
+    private final PresenceVisibility visibility;
+    private final Duration ttl;
+    private final Duration subscriptionTimeout;
+    private final Duration keepAliveInterval;
+    private final int maxSubscribers;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // uid -> 그 uid를 보고 있는 구독자
+    private final Map<String, Set<Subscriber>> watchers = new ConcurrentHashMap<>();
+    private final ExecutorService fanout;
+
+    public PresenceService(PresenceVisibility visibility,
+                           @Value("${stardylog.presence.ttl:PT90S}") Duration ttl,
+                           @Value("${stardylog.presence.subscription-timeout:PT30M}") Duration subscriptionTimeout,
+                           @Value("${stardylog.presence.keep-alive-interval:PT25S}") Duration keepAliveInterval,
+                           @Value("${stardylog.presence.max-subscribers:20000}") int maxSubscribers,
+                           @Value("${stardylog.presence.fanout-threads:4}") int fanoutThreads) {
+        this.visibility = visibility;
+        this.ttl = ttl;
+        this.subscriptionTimeout = subscriptionTimeout;
+        this.keepAliveInterval = keepAliveInterval;
+        this.maxSubscribers = maxSubscribers;
+        this.fanout = Executors.newFixedThreadPool(fanoutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "presence-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 세션 시작과 하트비트는 같은 처리 (시작 이벤트를 놓쳐도 하트비트로 공부 중이 된다)
+    public void heartbeat(String uid, String sessionId) {
+        registry.touch(uid, sessionId, Instant.now());
+    }
+
+    public void stop(String uid, String sessionId) {
+        registry.remove(uid, sessionId);
+    }
+
+    public List<PresenceResponse> snapshot(Collection<String> uids) {
+        List<PresenceResponse> result = new ArrayList<>(uids.size());
+        for (String uid : uids) {
+            result.add(toResponse(uid, registry.get(uid)));
+        }
+        return result;
+    }
+
+    // 구독 시작: 먼저 현재 상태(snapshot)를 보내고, 이후에는 바뀐 것만(presence) 보낸다
+    // uids는 viewer가 볼 수 있는 것으로 거른 목록 (PresenceVisibility.permitted)
+    public SseEmitter subscribe(String viewer, Collection<String> uids) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many presence subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(subscriptionTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, viewer, Set.copyOf(uids));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (String uid : subscriber.uids) {
+            watchers.compute(uid, (key, set) -> {
+                if (set == null) set = ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot(subscriber.uids)));
+            subscriber.lastSent = System.nanoTime();
+        } catch (IOException e) {
+            unsubscribe(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    // 만료 처리 후, 바뀐 상태를 구독자별로 묶어서 보낸다
+    @Scheduled(fixedDelayString = "${stardylog.presence.tick-interval:PT1S}")
+    public void tick() {
+        registry.expire(Instant.now().minus(ttl));
+        Map<String, Presence> changes = registry.drainChanges();
+
+        Map<Subscriber, List<PresenceResponse>> batches = new HashMap<>();
+        changes.forEach((uid, presence) -> {
+            Set<Subscriber> watching = watchers.get(uid);
+            if (watching == null) return;
+            PresenceResponse response = toResponse(uid, presence);
+            boolean shown = visibility.isVisible(uid);
+            for (Subscriber subscriber : watching) {
+                if (!shown && !subscriber.viewer.equals(uid)) continue;
+                batches.computeIfAbsent(subscriber, key -> new ArrayList<>()).add(response);
+            }
+        });
+        long keepAliveBefore = System.nanoTime() - keepAliveInterval.toNanos();
+        for (Subscriber subscriber : subscribers) {
+            List<PresenceResponse> batch = batches.getOrDefault(subscriber, List.of());
+            if (batch.isEmpty() && subscriber.lastSent - keepAliveBefore > 0) continue;
+            if (subscriber.enqueue(batch)) {
+                fanout.execute(() -> send(subscriber));
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        List<PresenceResponse> batch = subscriber.take();
+        try {
+            if (batch.isEmpty()) {
+                // 프록시가 유휴 연결을 끊지 않도록
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } else {
+                subscriber.emitter.send(SseEmitter.event().name("presence").data(batch));
+            }
+            subscriber.lastSent = System.nanoTime();
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊겼거나 이미 완료된 구독
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) return;
+        for (String uid : subscriber.uids) {
+            watchers.computeIfPresent(uid, (key, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private static PresenceResponse toResponse(String uid, Presence presence) {
+        return presence == null
+                ? new PresenceResponse(uid, false, null)
+                : new PresenceResponse(uid, true, presence.since());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdownNow();
+        for (Subscriber subscriber : List.copyOf(subscribers)) {
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("presence.active", registry, PresenceRegistry::size)
+                .description("Users currently studying on this node")
+                .register(meterRegistry);
+        Gauge.builder("presence.subscribers", subscribers, Set::size)
+                .description("Open presence streams on this node")
+                .register(meterRegistry);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String viewer;
+        private final Set<String> uids;
+        // 아직 보내지 못한 uid별 마지막 상태
+        private final Map<String, PresenceResponse> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private volatile long lastSent = System.nanoTime();
+
+        private Subscriber(SseEmitter emitter, String viewer, Set<String> uids) {
+            this.emitter = emitter;
+            this.viewer = viewer;
+            this.uids = uids;
+        }
+
+        // 전송 작업을 새로 예약해야 하면 true (이미 예약돼 있으면 그 작업이 함께 보낸다)
+        private synchronized boolean enqueue(List<PresenceResponse> batch) {
+            for (PresenceResponse response : batch) pending.put(response.uid(), response);
+            if (scheduled) return false;
+            scheduled = true;
+            return true;
+        }
+
+        private synchronized List<PresenceResponse> take() {
+            List<PresenceResponse> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            scheduled = false;
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.stardylog.presence;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.stardylog.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// 누가 누구의 공부 중 상태를 볼 수 있는지 (users.presence_visible)
+// - 본인 상태는 항상, 다른 사용자는 그 사용자가 공개했을 때만
+// - 조회/구독/전송마다 DB를 보지 않도록 uid별로 ttl 동안 메모리에 둔다 (다른 노드에서 바꾼 값은 늦어도 ttl 뒤에 반영)
+@Component
+public class PresenceVisibility {
+
+    private final UserRepository userRepository;
+    private final LoadingCache<String, Boolean> visible;
+
+    public PresenceVisibility(UserRepository userRepository,
+                              @Value("${stardylog.presence.visibility-ttl:PT1M}") Duration ttl,
+                              @Value("${stardylog.presence.visibility-cache-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.visible = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Boolean load(String uid) {
+                        return !userRepository.findPresenceVisible(Set.of(uid)).isEmpty();
+                    }
+
+                    // 여러 uid를 한 번의 IN 조회로
+                    @Override
+                    public Map<String, Boolean> loadAll(Set<? extends String> uids) {
+                        Set<String> shown = new HashSet<>(userRepository.findPresenceVisible(uids));
+                        Map<String, Boolean> result = new HashMap<>();
+                        for (String uid : uids) result.put(uid, shown.contains(uid));
+                        return result;
+                    }
+                });
+    }
+
+    // viewer가 볼 수 있는 uid만 (순서 유지)
+    public Set<String> permitted(String viewer, Collection<String> uids) {
+        Map<String, Boolean> shown = visible.getAll(uids.stream().filter(uid -> !uid.equals(viewer)).toList());
+        Set<String> result = new LinkedHashSet<>();
+        for (String uid : uids) {
+            if (uid.equals(viewer) || shown.getOrDefault(uid, false)) result.add(uid);
+        }
+        return result;
+    }
+
+    public boolean isVisible(String uid) {
+        return visible.get(uid);
+    }
+
+    @Transactional
+    public void set(String uid, boolean shown) {
+        if (userRepository.updatePresenceVisible(uid, shown) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        visible.put(uid, shown);
+    }
+}
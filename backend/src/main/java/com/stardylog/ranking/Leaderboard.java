@@ -0,0 +1,70 @@
+package com.stardylog.ranking;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 한 기간(예: 2025-03-10 주간)의 사용자별 공부 시간 순위. 조회는 동시에, 갱신은 한 번에 하나씩
+public final class Leaderboard {
+
+    private final RankingPeriod period;
+    private final LocalDate periodStart;
+    private final RankingTree tree = new RankingTree();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    Leaderboard(RankingPeriod period, LocalDate periodStart, Map<String, Long> scores) {
+        this.period = period;
+        this.periodStart = periodStart;
+        scores.forEach(tree::set);
+    }
+
+    RankingPeriod period() {
+        return period;
+    }
+
+    LocalDate periodStart() {
+        return periodStart;
+    }
+
+    void add(String uid, long seconds) {
+        lock.writeLock().lock();
+        try {
+            tree.add(uid, seconds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<RankingTree.Entry> top(int n) {
+        lock.readLock().lock();
+        try {
+            return tree.top(n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Standing standingOf(String uid) {
+        lock.readLock().lock();
+        try {
+            Long score = tree.score(uid);
+            return new Standing(tree.rank(uid), score == null ? 0 : score, tree.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // rank: 1부터, 순위에 없으면 0
+    public record Standing(int rank, long score, int total) {}
+}
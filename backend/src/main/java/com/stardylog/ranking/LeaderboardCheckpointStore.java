@@ -0,0 +1,85 @@
+package com.stardylog.ranking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// leaderboard_scores: 기간별 사용자 공부 시간 체크포인트
+// 노드마다 메모리 랭킹에 더한 값(델타)을 주기적으로 더해 넣으므로 여러 노드가 있어도 DB 값이 전체 합계가 된다
+@Component
+@RequiredArgsConstructor
+public class LeaderboardCheckpointStore {
+
+    private static final String UPSERT_SQL = """
+            insert into leaderboard_scores (period, period_start, user_uid, study_seconds)
+            values (?, ?, ?, ?)
+            on duplicate key update study_seconds = study_seconds + values(study_seconds)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stardylog.ingest.batch-size:500}")
+    private int batchSize;
+
+    public Map<String, Long> load(RankingPeriod period, LocalDate periodStart) {
+        Map<String, Long> scores = new HashMap<>();
+        jdbcTemplate.query("select user_uid, study_seconds from leaderboard_scores where period = ? and period_start = ?",
+                rs -> {
+                    scores.put(rs.getString(1), rs.getLong(2));
+                },
+                period.name(), Date.valueOf(periodStart));
+        return scores;
+    }
+
+    @Transactional
+    public void addAll(Map<PendingKey, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        List<Map.Entry<PendingKey, Long>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, e) -> {
+            ps.setString(1, e.getKey().period().name());
+            ps.setDate(2, Date.valueOf(e.getKey().periodStart()));
+            ps.setString(3, e.getKey().uid());
+            ps.setLong(4, e.getValue());
+        });
+    }
+
+    // 지난 기간 체크포인트 정리 (일간은 dailyBefore 이전, 주간은 weeklyBefore 이전 삭제)
+    @Transactional
+    public void purge(LocalDate dailyBefore, LocalDate weeklyBefore) {
+        jdbcTemplate.update("delete from leaderboard_scores where period = ? and period_start < ?", RankingPeriod.DAILY.name(), Date.valueOf(dailyBefore));
+        jdbcTemplate.update("delete from leaderboard_scores where period = ? and period_start < ?", RankingPeriod.WEEKLY.name(), Date.valueOf(weeklyBefore));
+    }
+
+    // 통계 롤업(study_daily_stats)에서 오늘/이번 주/전체 체크포인트를 다시 만든다 (도입 시 한 번, 불일치 복구용)
+    @Transactional
+    public void rebuildFromStats(LocalDate today) {
+        jdbcTemplate.update("delete from leaderboard_scores");
+        LocalDate weekStart = RankingPeriod.WEEKLY.startOf(today);
+        insertFromStats(RankingPeriod.DAILY, today, today, today);
+        insertFromStats(RankingPeriod.WEEKLY, weekStart, weekStart, weekStart.plusDays(6));
+        insertFromStats(RankingPeriod.ALL_TIME, RankingPeriod.ALL_TIME_START, LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31));
+    }
+
+    private void insertFromStats(RankingPeriod period, LocalDate periodStart, LocalDate from, LocalDate to) {
+        jdbcTemplate.update("""
+                insert into leaderboard_scores (period, period_start, user_uid, study_seconds)
+                select ?, ?, user_uid, sum(study_seconds)
+                from study_daily_stats
+                where stat_date between ? and ?
+                group by user_uid
+                having sum(study_seconds) > 0
+                """, period.name(), Date.valueOf(periodStart), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // 체크포인트에 아직 더하지 않은 값의 키
+    public record PendingKey(RankingPeriod period, LocalDate periodStart, String uid) {}
+}
@@ -0,0 +1,41 @@
+package com.stardylog.ranking;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// 랭킹 집계 기간. 날짜는 통계와 같은 stardylog.stats.zone 기준
+public enum RankingPeriod {
+    DAILY("daily"),
+    WEEKLY("weekly"),   // 월요일 시작 (주간 통계와 같음)
+    ALL_TIME("all-time");
+
+    static final LocalDate ALL_TIME_START = LocalDate.EPOCH;
+
+    private final String path;
+
+    RankingPeriod(String path) {
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    // date가 속한 기간의 시작일
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case ALL_TIME -> ALL_TIME_START;
+        };
+    }
+
+    // API 경로 값 (daily, weekly, all-time). 없으면 null
+    public static RankingPeriod fromPath(String path) {
+        for (RankingPeriod p : values()) {
+            if (p.path.equals(path)) return p;
+        }
+        return null;
+    }
+}
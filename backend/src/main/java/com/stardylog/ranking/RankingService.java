@@ -0,0 +1,216 @@
+package com.stardylog.ranking;
+
+import com.stardylog.ranking.LeaderboardCheckpointStore.PendingKey;
+import com.stardylog.stats.StudyStatsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 공부 시간 랭킹 (일간/주간/전체)
+// - 기간마다 메모리 순위 트리(Leaderboard) 하나. 기록 저장이 커밋되면 바로 더한다
+// - 더한 값은 pending에 모았다가 checkpoint-interval마다 leaderboard_scores에 더해 넣고,
+//   reload-interval마다 DB 값으로 트리를 다시 만들어 다른 노드가 더한 값과 맞춘다
+// - 날짜가 바뀌면 새 기간의 빈 트리로 시작하고, 다음 reload에서 다른 노드 값이 합쳐진다
+@Slf4j
+@Service
+public class RankingService implements ApplicationRunner {
+
+    private final LeaderboardCheckpointStore checkpointStore;
+    private final ZoneId zone;
+    private final boolean rebuildOnStartup;
+
+    private final Map<RankingPeriod, Leaderboard> boards = new ConcurrentHashMap<>();
+    // 메모리 트리에는 더했지만 아직 체크포인트에 더하지 않은 값 (lock으로 보호)
+    private Map<PendingKey, Long> pending = new HashMap<>();
+    // boards 교체 / pending 변경용 (메모리 작업만 하는 짧은 구간)
+    private final ReentrantLock lock = new ReentrantLock();
+    // 체크포인트/다시 읽기가 겹치지 않게 (DB 작업 구간, lock과 동시에 잡지 않는다)
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
+    public RankingService(LeaderboardCheckpointStore checkpointStore,
+                          StudyStatsService statsService,
+                          @Value("${stardylog.ranking.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.checkpointStore = checkpointStore;
+        this.zone = statsService.zone();
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            rebuildFromStats();
+        } else {
+            reload();
+        }
+    }
+
+    // 기록 저장 트랜잭션 안에서 호출. 커밋된 뒤에만 랭킹에 반영한다 (BREAK 제외)
+    public void record(String uid, List<StudyStatsService.Interval> intervals) {
+        Map<LocalDate, Long> byDate = new TreeMap<>();
+        for (StudyStatsService.Interval interval : intervals) {
+            if (StudyStatsService.BREAK.equals(interval.intervalType())) continue;
+            byDate.merge(interval.startTime().atZone(zone).toLocalDate(), (long) interval.durationSeconds(), Long::sum);
+        }
+        if (byDate.isEmpty()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(uid, byDate);
+                }
+            });
+        } else {
+            apply(uid, byDate);
+        }
+    }
+
+    public List<RankingTree.Entry> top(RankingPeriod period, int limit) {
+        return current(period).top(limit);
+    }
+
+    public Leaderboard.Standing standing(RankingPeriod period, String uid) {
+        return current(period).standingOf(uid);
+    }
+
+    public int size(RankingPeriod period) {
+        return current(period).size();
+    }
+
+    public LocalDate currentPeriodStart(RankingPeriod period) {
+        return period.startOf(LocalDate.now(zone));
+    }
+
+    void apply(String uid, Map<LocalDate, Long> secondsByDate) {
+        lock.lock();
+        try {
+            secondsByDate.forEach((date, seconds) -> {
+                for (RankingPeriod period : RankingPeriod.values()) {
+                    LocalDate start = period.startOf(date);
+                    Leaderboard board = current(period);
+                    if (board.periodStart().equals(start)) {
+                        board.add(uid, seconds);
+                    }
+                    // 지난 기간에 더해지는 값(늦게 올라온 기록)도 체크포인트에는 남긴다
+                    pending.merge(new PendingKey(period, start, uid), seconds, Long::sum);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Leaderboard current(RankingPeriod period) {
+        LocalDate start = currentPeriodStart(period);
+        Leaderboard board = boards.get(period);
+        if (board != null && board.periodStart().equals(start)) return board;
+        // 기간이 바뀜: 빈 트리로 시작 (다음 reload에서 다른 노드 값이 합쳐진다)
+        return boards.compute(period, (p, b) -> b != null && b.periodStart().equals(start) ? b : new Leaderboard(p, start, Map.of()));
+    }
+
+    @Scheduled(fixedDelayString = "${stardylog.ranking.checkpoint-interval:PT1M}", initialDelayString = "${stardylog.ranking.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        maintenanceLock.lock();
+        try {
+            flush();
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    // DB 체크포인트로 현재 기간 트리들을 다시 만든다 (여러 노드의 값 합치기)
+    @Scheduled(fixedDelayString = "${stardylog.ranking.reload-interval:PT5M}", initialDelayString = "${stardylog.ranking.reload-interval:PT5M}")
+    public void reload() {
+        maintenanceLock.lock();
+        try {
+            flush();
+            Map<RankingPeriod, Leaderboard> loaded = new EnumMap<>(RankingPeriod.class);
+            for (RankingPeriod period : RankingPeriod.values()) {
+                LocalDate start = currentPeriodStart(period);
+                loaded.put(period, new Leaderboard(period, start, checkpointStore.load(period, start)));
+            }
+            lock.lock();
+            try {
+                // 읽는 동안 들어온 값은 아직 DB에 없으므로 pending에서 다시 더한다
+                pending.forEach((key, seconds) -> {
+                    Leaderboard board = loaded.get(key.period());
+                    if (board.periodStart().equals(key.periodStart())) {
+                        board.add(key.uid(), seconds);
+                    }
+                });
+                boards.putAll(loaded);
+            } finally {
+                lock.unlock();
+            }
+            LocalDate today = LocalDate.now(zone);
+            checkpointStore.purge(today.minusDays(7), RankingPeriod.WEEKLY.startOf(today).minusWeeks(8));
+        } catch (RuntimeException e) {
+            log.warn("failed to reload leaderboards", e);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    // 통계 롤업에서 체크포인트를 다시 만든다 (기록 저장이 적은 시간에 실행)
+    public void rebuildFromStats() {
+        maintenanceLock.lock();
+        try {
+            lock.lock();
+            try {
+                pending = new HashMap<>(); // 롤업에 이미 포함된 값
+            } finally {
+                lock.unlock();
+            }
+            checkpointStore.rebuildFromStats(LocalDate.now(zone));
+            log.info("leaderboard checkpoints rebuilt from study_daily_stats");
+        } finally {
+            maintenanceLock.unlock();
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    // maintenanceLock 안에서 호출
+    private void flush() {
+        Map<PendingKey, Long> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new HashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            checkpointStore.addAll(batch);
+        } catch (RuntimeException e) {
+            // 다음 주기에 다시 시도
+            lock.lock();
+            try {
+                batch.forEach((key, seconds) -> pending.merge(key, seconds, Long::sum));
+            } finally {
+                lock.unlock();
+            }
+            log.warn("failed to checkpoint {} leaderboard deltas", batch.size(), e);
+        }
+    }
+}
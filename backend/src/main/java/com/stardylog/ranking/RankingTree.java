@@ -0,0 +1,168 @@
+package com.stardylog.ranking;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// 순위 계산용 order-statistics 트리 (treap, 노드마다 서브트리 크기 보관)
+// 정렬: 점수 내림차순, 같으면 uid 오름차순 -> 순위가 항상 하나로 정해진다
+// 점수 갱신/순위 조회 O(log n), 상위 N명 O(log n + N). 스레드 안전하지 않음 (Leaderboard가 잠금)
+public final class RankingTree {
+
+    public record Entry(String uid, long score) {}
+
+    private static final class Node {
+        final String uid;
+        final long score;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(String uid, long score, int priority) {
+            this.uid = uid;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<String, Long> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    void add(String uid, long delta) {
+        Long old = scores.get(uid);
+        set(uid, (old == null ? 0 : old) + delta);
+    }
+
+    void set(String uid, long score) {
+        Long old = scores.put(uid, score);
+        if (old != null) {
+            root = remove(root, old, uid);
+        }
+        root = insert(root, new Node(uid, score, random.nextInt()));
+    }
+
+    // 없으면 null
+    Long score(String uid) {
+        return scores.get(uid);
+    }
+
+    // 1부터 시작하는 순위, 없으면 0
+    int rank(String uid) {
+        Long score = scores.get(uid);
+        if (score == null) return 0;
+        int rank = 0;
+        Node t = root;
+        while (t != null) {
+            int c = compare(score, uid, t.score, t.uid);
+            if (c < 0) {
+                t = t.left;
+            } else if (c == 0) {
+                return rank + size(t.left) + 1;
+            } else {
+                rank += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        throw new IllegalStateException("ranking tree is missing " + uid);
+    }
+
+    // 상위 n명 (중위 순회를 n개에서 멈춤)
+    List<Entry> top(int n) {
+        List<Entry> result = new ArrayList<>(Math.min(n, size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node t = root;
+        while ((t != null || !stack.isEmpty()) && result.size() < n) {
+            while (t != null) {
+                stack.push(t);
+                t = t.left;
+            }
+            t = stack.pop();
+            result.add(new Entry(t.uid, t.score));
+            t = t.right;
+        }
+        return result;
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    private static int compare(long scoreA, String uidA, long scoreB, String uidB) {
+        int c = Long.compare(scoreB, scoreA);
+        return c != 0 ? c : uidA.compareTo(uidB);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static void update(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) return n;
+        if (n.priority > t.priority) {
+            Node[] parts = split(t, n.score, n.uid);
+            n.left = parts[0];
+            n.right = parts[1];
+            update(n);
+            return n;
+        }
+        if (compare(n.score, n.uid, t.score, t.uid) < 0) {
+            t.left = insert(t.left, n);
+        } else {
+            t.right = insert(t.right, n);
+        }
+        update(t);
+        return t;
+    }
+
+    private static Node remove(Node t, long score, String uid) {
+        if (t == null) return null;
+        int c = compare(score, uid, t.score, t.uid);
+        if (c == 0) return merge(t.left, t.right);
+        if (c < 0) {
+            t.left = remove(t.left, score, uid);
+        } else {
+            t.right = remove(t.right, score, uid);
+        }
+        update(t);
+        return t;
+    }
+
+    // [키보다 앞, 키 이후]로 나눈다
+    private static Node[] split(Node t, long score, String uid) {
+        if (t == null) return new Node[]{null, null};
+        if (compare(t.score, t.uid, score, uid) < 0) {
+            Node[] parts = split(t.right, score, uid);
+            t.right = parts[0];
+            update(t);
+            return new Node[]{t, parts[1]};
+        }
+        Node[] parts = split(t.left, score, uid);
+        t.left = parts[1];
+        update(t);
+        return new Node[]{parts[0], t};
+    }
+
+    // a의 모든 키가 b보다 앞
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+}
@@ -1,12 +1,11 @@
 package com.stardylog.security;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
-import com.stardylog.user.User;
-import com.stardylog.user.UserRepository;
+import com.stardylog.user.LoginTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.*;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,18 +13,31 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.util.Optional;
-import org.springframework.dao.DataIntegrityViolationException;
-
-import java.time.Instant;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class FirebaseAuthFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private final TokenVerifier tokenVerifier;
+    private final LoginTracker loginTracker;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // 토큰 검증(캐시 적중/미적중 별) · 사용자 반영 소요 시간
+    private final Timer verifyCachedTimer;
+    private final Timer verifyUncachedTimer;
+    private final Timer userUpsertTimer;
+
+    public FirebaseAuthFilter(TokenVerifier tokenVerifier, LoginTracker loginTracker, VerifiedTokenCache verifiedTokenCache,
+                              MeterRegistry meterRegistry) {
+        this.tokenVerifier = tokenVerifier;
+        this.loginTracker = loginTracker;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.verifyCachedTimer = Timer.builder("auth.token.verify").tag("cache", "hit").register(meterRegistry);
+        this.verifyUncachedTimer = Timer.builder("auth.token.verify").tag("cache", "miss").register(meterRegistry);
+        this.userUpsertTimer = Timer.builder("auth.user.upsert").register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
@@ -35,53 +47,32 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
         if (auth != null && auth.startsWith("Bearer ")) {
             String idToken = auth.substring(7);
             try {
-                FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(idToken);
-
-                System.out.println("✅ Firebase decoded: uid=" + decoded.getUid() + ", email=" + decoded.getEmail());
+                long started = System.nanoTime();
+                VerifiedToken decoded = verifiedTokenCache.get(idToken);
+                if (decoded != null) {
+                    verifyCachedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                } else {
+                    // 캐시에 없을 때만 서명 검증 + 클레임 파싱 (기본 Firebase, loadtest 프로필은 로컬 JWT)
+                    decoded = tokenVerifier.verify(idToken);
+                    verifiedTokenCache.put(idToken, decoded);
+                    verifyUncachedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
-                String provider = null;
-                Object firebaseClaim = decoded.getClaims().get("firebase");
-                if (firebaseClaim instanceof Map<?, ?> m) {
-                    Object v = m.get("sign_in_provider");
-                    if (v != null) provider = v.toString();
+                    log.debug("ID token verified: uid={}", decoded.uid());
                 }
 
-                Optional<User> userOptional = userRepository.findById(decoded.getUid());
-
-                User u;
-                if (userOptional.isPresent()) {
-                    // 2. [유저가 있을 때] 기존 유저 정보를 업데이트합니다.
-                    u = userOptional.get();
-                    u.setEmail(decoded.getEmail());
-                    u.setProvider(provider);
-                    u.setLastLoginAt(Instant.now());
-                    userRepository.save(u); // UPDATE 실행
-                } else {
-                    // 3. [유저가 없을 때] 새 유저를 생성합니다.
-                    u = User.builder()
-                            .uid(decoded.getUid())
-                            .createdAt(Instant.now())
-                            .email(decoded.getEmail())
-                            .provider(provider)
-                            .lastLoginAt(Instant.now())
-                            .build();
-                    try {
-                        userRepository.save(u); // INSERT 시도
-                    } catch (DataIntegrityViolationException e) {
-                        // 4. [레이스 컨디션] 다른 요청이 방금 INSERT했다면, 오류를 무시합니다.
-                        // (이미 유저가 생성되었으므로 이 요청은 성공한 것으로 간주합니다)
-                        System.out.println("ℹ️ Race condition handled: User already created by another request. uid=" + decoded.getUid());
-                        // (선택사항) u = userRepository.findById(decoded.getUid()).get();
-                    }
-                }
+                // users 테이블 반영은 변경이 있을 때만 (lastLoginAt은 주기적으로 일괄 반영)
+                VerifiedToken user = decoded;
+                userUpsertTimer.record(() -> loginTracker.onAuthenticated(user.uid(), user.email(), user.provider()));
 
+                String principal = decoded.uid();
                 var authToken = new AbstractAuthenticationToken(List.of(new SimpleGrantedAuthority("ROLE_USER"))) {
                     @Override public Object getCredentials() {return ""; }
-                    @Override public Object getPrincipal() {return decoded.getUid();}
+                    @Override public Object getPrincipal() {return principal;}
                 };
                 authToken.setAuthenticated(true);
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             } catch (Exception e) {
+                log.debug("Authentication failed: {}", e.getMessage());
                 res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
@@ -0,0 +1,23 @@
+package com.stardylog.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// Firebase Admin SDK로 ID 토큰 검증 (FirebaseConfig가 FirebaseApp을 초기화)
+@Component
+@Profile("!loadtest")
+public class FirebaseTokenVerifier implements TokenVerifier {
+
+    @Override
+    public VerifiedToken verify(String idToken) throws InvalidTokenException {
+        try {
+            FirebaseToken token = FirebaseAuth.getInstance().verifyIdToken(idToken);
+            return VerifiedToken.fromClaims(token.getUid(), token.getEmail(), token.getClaims());
+        } catch (FirebaseAuthException | IllegalArgumentException e) {
+            throw new InvalidTokenException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.stardylog.security;
+
+// 서명/만료/형식 검증에 실패한 토큰 (FirebaseAuthFilter에서 401)
+public class InvalidTokenException extends Exception {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
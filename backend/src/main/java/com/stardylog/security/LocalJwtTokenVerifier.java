@@ -0,0 +1,104 @@
+package com.stardylog.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// loadtest 프로필 전용 토큰 발급/검증 (Firebase 대신 로컬 RS256 JWT)
+// - 기동할 때마다 RSA 키 쌍을 새로 만든다. 토큰은 같은 프로세스의 /loadtest/tokens에서 발급받아 쓴다
+// - 클레임 모양은 Firebase ID 토큰과 같게 (sub/user_id, email, exp, firebase.sign_in_provider)
+//   맞춰서 VerifiedToken.fromClaims와 토큰 캐시/로그인 추적이 운영과 똑같이 동작한다
+@Component
+@Profile("loadtest")
+public class LocalJwtTokenVerifier implements TokenVerifier {
+
+    static final String ISSUER = "stardylog-loadtest";
+    private static final String HEADER = base64Url("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final KeyPair keyPair;
+    private final Duration ttl;
+
+    public LocalJwtTokenVerifier(ObjectMapper objectMapper,
+                                 @Value("${stardylog.loadtest.token-ttl:PT2H}") Duration ttl) throws NoSuchAlgorithmException {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+    }
+
+    public String issue(String uid, String email) {
+        Instant now = Instant.now();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", ISSUER);
+        claims.put("aud", ISSUER);
+        claims.put("sub", uid);
+        claims.put("user_id", uid);
+        if (email != null) claims.put("email", email);
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(ttl).getEpochSecond());
+        claims.put("firebase", Map.of("sign_in_provider", "password"));
+        try {
+            String signingInput = HEADER + "." + base64Url(objectMapper.writeValueAsBytes(claims));
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + base64Url(signature.sign());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public VerifiedToken verify(String idToken) throws InvalidTokenException {
+        String[] parts = idToken.split("\\.");
+        if (parts.length != 3 || !HEADER.equals(parts[0])) {
+            throw new InvalidTokenException("Malformed or unsupported token");
+        }
+        Map<String, Object> claims;
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(keyPair.getPublic());
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!signature.verify(DECODER.decode(parts[2]))) {
+                throw new InvalidTokenException("Invalid token signature");
+            }
+            claims = objectMapper.readValue(DECODER.decode(parts[1]), new TypeReference<>() {});
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token", e);
+        }
+
+        if (!ISSUER.equals(claims.get("iss")) || !(claims.get("sub") instanceof String uid) || uid.isBlank()) {
+            throw new InvalidTokenException("Unexpected token issuer or subject");
+        }
+        VerifiedToken token = VerifiedToken.fromClaims(uid, (String) claims.get("email"), claims);
+        if (token.isExpired(Instant.now())) {
+            throw new InvalidTokenException("Token expired");
+        }
+        return token;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,9 @@
+package com.stardylog.security;
+
+// Bearer ID 토큰 서명/만료 검증 (FirebaseAuthFilter가 캐시에 없을 때만 호출)
+// - 기본: FirebaseTokenVerifier (Firebase Admin SDK)
+// - loadtest 프로필: LocalJwtTokenVerifier (로컬 RS256 키, Firebase 없이 부하 테스트)
+public interface TokenVerifier {
+
+    VerifiedToken verify(String idToken) throws InvalidTokenException;
+}
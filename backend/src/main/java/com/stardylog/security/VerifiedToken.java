@@ -0,0 +1,32 @@
+package com.stardylog.security;
+
+import java.time.Instant;
+import java.util.Map;
+
+// 서명 검증이 끝난 ID 토큰에서 필요한 값만 뽑아 둔 것 (캐시에 저장되는 단위)
+public record VerifiedToken(
+        String uid,
+        String email,
+        String provider,
+        Instant expiresAt
+) {
+    // 디코딩된 클레임에서 provider(firebase.sign_in_provider)와 만료 시각(exp)을 꺼낸다
+    public static VerifiedToken fromClaims(String uid, String email, Map<String, Object> claims) {
+        String provider = null;
+        Object firebaseClaim = claims.get("firebase");
+        if (firebaseClaim instanceof Map<?, ?> m) {
+            Object v = m.get("sign_in_provider");
+            if (v != null) provider = v.toString();
+        }
+
+        Instant expiresAt = Instant.EPOCH; // exp가 없으면 캐시하지 않도록 이미 만료된 것으로 취급
+        if (claims.get("exp") instanceof Number exp) {
+            expiresAt = Instant.ofEpochSecond(exp.longValue());
+        }
+        return new VerifiedToken(uid, email, provider, expiresAt);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
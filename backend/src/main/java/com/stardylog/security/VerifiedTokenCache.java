@@ -0,0 +1,93 @@
+package com.stardylog.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// 같은 ID 토큰을 만료 전까지 반복해서 검증하지 않도록 검증 결과를 보관하는 캐시
+// - 키: 토큰 원문이 아닌 SHA-256 해시 (메모리에 토큰 자체를 남기지 않음)
+// - 만료: 토큰의 exp 시각까지만 유지
+// - 크기: max-size 초과 시 Caffeine이 오래/덜 쓰인 항목부터 제거
+// 적중/미적중/제거 수는 cache.* 메트릭(cache=firebaseTokens)으로 노출
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${stardylog.auth.token-cache.max-size:50000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        Duration ttl = Duration.between(Instant.now(), value.expiresAt());
+                        return ttl.isNegative() ? 0 : ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration; // 읽기로는 만료 시각을 늘리지 않음
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // 캐시에 없거나 만료된 경우 null
+    public VerifiedToken get(String idToken) {
+        VerifiedToken token = cache.getIfPresent(keyOf(idToken));
+        if (token != null && token.isExpired(Instant.now())) {
+            return null;
+        }
+        return token;
+    }
+
+    public void put(String idToken, VerifiedToken token) {
+        if (token.isExpired(Instant.now())) return;
+        cache.put(keyOf(idToken), token);
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "firebaseTokens");
+    }
+
+    private static String keyOf(String idToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(idToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.stardylog.stats;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+// 사용자별 · 날짜별 · 과목별 공부 시간 집계 (study_logs를 매번 합산하지 않도록 미리 누적)
+@Entity
+@Table(name = "study_daily_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_study_daily_stats_user_date_subject_id", columnNames = {"user_uid", "stat_date", "subject_id"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class StudyDailyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_uid", nullable = false)
+    private String userUid;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate; // stardylog.stats.zone 기준 날짜 (기록의 startTime 기준)
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId; // 과목 이름은 조회 시 subjects에서 조인 (이름을 바꿔도 통계가 이어짐)
+
+    private long studySeconds;
+    private long breakSeconds;
+    private int logCount;
+}
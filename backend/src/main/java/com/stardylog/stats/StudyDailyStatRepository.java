@@ -0,0 +1,38 @@
+package com.stardylog.stats;
+
+import com.stardylog.api.dto.DailyStatResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StudyDailyStatRepository extends JpaRepository<StudyDailyStat, Long> {
+
+    // 과목 이름은 subjects PK 조인으로 읽는다
+    @Query("""
+            select new com.stardylog.api.dto.DailyStatResponse(
+                d.statDate, d.subjectId, s.name, d.studySeconds, d.breakSeconds, d.logCount)
+            from StudyDailyStat d join Subject s on s.id = d.subjectId
+            where d.userUid = :userUid and d.statDate between :from and :to
+            order by d.statDate asc, s.name asc, d.subjectId asc
+            """)
+    List<DailyStatResponse> findDaily(String userUid, LocalDate from, LocalDate to);
+
+    // (user_uid, stat_date, subject_id) 행이 있으면 더하고, 없으면 새로 만든다
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into study_daily_stats (user_uid, stat_date, subject_id, study_seconds, break_seconds, log_count)
+            values (:userUid, :statDate, :subjectId, :studySeconds, :breakSeconds, :logCount)
+            on duplicate key update
+                study_seconds = study_seconds + values(study_seconds),
+                break_seconds = break_seconds + values(break_seconds),
+                log_count = log_count + values(log_count)
+            """)
+    void upsertAdd(String userUid, LocalDate statDate, long subjectId, long studySeconds, long breakSeconds, int logCount);
+
+    @Modifying
+    @Query("delete from StudyDailyStat s where s.userUid = :userUid")
+    void deleteByUserUid(String userUid);
+}
@@ -0,0 +1,60 @@
+package com.stardylog.stats;
+
+import com.stardylog.log.StudyLogQueryService;
+import com.stardylog.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// study_logs 원본에서 study_daily_stats를 다시 만든다 (롤업 도입 전 데이터 백필 / 불일치 복구용)
+// stardylog.stats.rebuild-on-startup=true 로 기동하면 전체 사용자를 한 명씩 재계산
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudyStatsRebuildJob implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final StudyDailyStatRepository statRepository;
+    private final StudyLogQueryService studyLogQueryService;
+    private final StudyStatsService statsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stardylog.stats.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    public void rebuildAll() {
+        int users = 0;
+        for (String uid : userRepository.findAllUids()) {
+            rebuild(uid);
+            users++;
+        }
+        log.info("study_daily_stats rebuilt for {} users", users);
+    }
+
+    // 사용자 한 명의 롤업을 지우고 원본 기록을 스트리밍으로 다시 합산 (사용자 단위 트랜잭션)
+    public void rebuild(String uid) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // 재계산 중 같은 사용자의 기록 저장이 끼어들지 않도록 사용자 행을 잠근다
+            if (userRepository.findByIdForUpdate(uid).isEmpty()) return;
+            statRepository.deleteByUserUid(uid);
+            StudyStatsService.Accumulator acc = statsService.newAccumulator();
+            studyLogQueryService.streamRange(uid, StudyLogQueryService.MIN_TIME, StudyLogQueryService.MAX_TIME, row -> {
+                // subject_id 백필 전의 레거시 기록은 건너뛴다 (StudyLogSubjectBackfillJob이 백필 후 다시 재계산)
+                if (row.subjectId() == null) return;
+                acc.add(new StudyStatsService.Interval(row.subjectId(), row.intervalType(), row.durationSeconds(), row.startTime()));
+            });
+            acc.flushTo(uid, statRepository);
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.stardylog.stats;
+
+import com.stardylog.api.dto.DailyStatResponse;
+import com.stardylog.api.dto.WeeklyStatResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// study_daily_stats 롤업 갱신/조회
+// - 날짜는 기록의 startTime을 stardylog.stats.zone 기준으로 자른 값 (자정을 넘는 구간도 시작일에 합산)
+// - intervalType이 BREAK면 breakSeconds, 그 외는 studySeconds
+@Service
+public class StudyStatsService {
+
+    public static final String BREAK = "BREAK";
+
+    private final StudyDailyStatRepository statRepository;
+    private final ZoneId zone;
+
+    public StudyStatsService(StudyDailyStatRepository statRepository,
+                             @Value("${stardylog.stats.zone:Asia/Seoul}") ZoneId zone) {
+        this.statRepository = statRepository;
+        this.zone = zone;
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    // 새로 저장된 기록을 롤업에 더한다 (기록 저장과 같은 트랜잭션에서 호출)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String uid, List<Interval> intervals) {
+        Accumulator acc = new Accumulator();
+        intervals.forEach(acc::add);
+        acc.flushTo(uid, statRepository);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyStatResponse> daily(String uid, LocalDate from, LocalDate to) {
+        return statRepository.findDaily(uid, from, to);
+    }
+
+    // 일별 롤업만 읽어서 주(월요일 시작) 단위로 합산
+    // from/to가 걸친 주는 양쪽 모두 주 전체(월~일)를 합산한다 (첫 주만 넓히고 마지막 주는 잘리는 일이 없게)
+    @Transactional(readOnly = true)
+    public List<WeeklyStatResponse> weekly(String uid, LocalDate from, LocalDate to) {
+        LocalDate firstWeek = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate lastDay = to.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        Map<LocalDate, Map<Long, WeeklyStatResponse>> weeks = new TreeMap<>();
+        for (DailyStatResponse d : statRepository.findDaily(uid, firstWeek, lastDay)) {
+            LocalDate weekStart = d.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            weeks.computeIfAbsent(weekStart, k -> new LinkedHashMap<>())
+                    .merge(d.subjectId(),
+                            new WeeklyStatResponse(weekStart, d.subjectId(), d.subjectName(), d.studySeconds(), d.breakSeconds(), d.logCount()),
+                            (a, b) -> new WeeklyStatResponse(weekStart, a.subjectId(), a.subjectName(),
+                                    a.studySeconds() + b.studySeconds(), a.breakSeconds() + b.breakSeconds(), a.logCount() + b.logCount()));
+        }
+
+        // 주 안에서는 과목 이름 순
+        List<WeeklyStatResponse> result = new ArrayList<>();
+        weeks.values().forEach(bySubject -> bySubject.values().stream()
+                .sorted(Comparator.comparing(WeeklyStatResponse::subjectName).thenComparing(WeeklyStatResponse::subjectId))
+                .forEach(result::add));
+        return result;
+    }
+
+    public Accumulator newAccumulator() {
+        return new Accumulator();
+    }
+
+    // 롤업에 더할 기록 한 건
+    public record Interval(long subjectId, String intervalType, int durationSeconds, Instant startTime) {}
+
+    // (날짜, 과목)별로 메모리에서 먼저 합산한 뒤 그룹당 한 번만 upsert
+    public class Accumulator {
+        private final Map<LocalDate, Map<Long, long[]>> sums = new LinkedHashMap<>();
+
+        public void add(Interval interval) {
+            LocalDate date = interval.startTime().atZone(zone).toLocalDate();
+            long[] s = sums.computeIfAbsent(date, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(interval.subjectId(), k -> new long[3]);
+            if (BREAK.equals(interval.intervalType())) {
+                s[1] += interval.durationSeconds();
+            } else {
+                s[0] += interval.durationSeconds();
+            }
+            s[2]++;
+        }
+
+        void flushTo(String uid, StudyDailyStatRepository repository) {
+            sums.forEach((date, bySubject) -> bySubject.forEach((subjectId, s) ->
+                    repository.upsertAdd(uid, date, subjectId, s[0], s[1], (int) s[2])));
+            sums.clear();
+        }
+    }
+}
@@ -5,7 +5,12 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.time.Instant;
 
-@Entity @Table(name = "subjects")
+@Entity @Table(name = "subjects", indexes = {
+        // 델타 동기화 (change_version > since) 조회용. 삭제된 과목도 툼스톤으로 내려준다
+        @Index(name = "idx_subjects_user_version", columnList = "user_uid, change_version"),
+        // 과목 목록 (삭제되지 않은 것, 표시 순서) / 본인 과목 확인 (V5__subject_sort_order.sql)
+        @Index(name = "idx_subjects_user_deleted_sort", columnList = "user_uid, deleted, sort_order, id")
+})
 @Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
 public class Subject {
 
@@ -23,10 +28,18 @@ public class Subject {
     @Column(length = 10) // 색상 코드 저장 (예: "FF0000")
     private String color;
 
+    // 목록 표시 순서 (작은 값이 먼저, 같으면 id 순). 새 과목은 맨 뒤
+    @Column(name = "sort_order", nullable = false)
+    private int sortOrder;
+
     // (선택) 과목 생성/수정 시간 등 추가 정보
     private Instant createdAt;
 
     // --- 중요: 소프트 삭제 (Soft Delete) ---
     private boolean deleted = false; // 삭제 여부 플래그
     private Instant deletedAt;      // 삭제 시간 (선택)
+
+    // 사용자별 변경 번호 (추가/수정/삭제마다 User.changeSeq에서 새로 발급)
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.stardylog.subject;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+// subjects 일괄 INSERT (과목 일괄 추가)
+// Subject.id가 IDENTITY라 Hibernate는 INSERT를 배치로 묶지 못하므로 StudyLogBulkWriter처럼 JDBC 배치로 쓴다
+@Component
+public class SubjectBulkWriter {
+
+    static final String INSERT_SQL = """
+            insert into subjects
+                (user_uid, name, color, sort_order, created_at, deleted, change_version)
+            values (?, ?, ?, ?, ?, false, ?)
+            """;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubjectBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 호출 측 트랜잭션에 참여한다. 생성된 id는 돌려주지 않으므로 필요하면 다시 조회할 것
+    public void insert(String uid, List<Subject> subjects) {
+        if (subjects.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, subjects, subjects.size(), (ps, subject) -> {
+            ps.setString(1, uid);
+            ps.setString(2, subject.getName());
+            ps.setString(3, subject.getColor());
+            ps.setInt(4, subject.getSortOrder());
+            ps.setTimestamp(5, Timestamp.from(subject.getCreatedAt()), Calendar.getInstance(UTC));
+            ps.setLong(6, subject.getChangeVersion());
+        });
+    }
+}
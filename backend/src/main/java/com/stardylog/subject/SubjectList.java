@@ -0,0 +1,11 @@
+package com.stardylog.subject;
+
+import com.stardylog.api.dto.SubjectResponse;
+
+import java.io.Serializable;
+import java.util.List;
+
+// 캐시에 두는 과목 목록 + 그 목록을 읽을 때의 사용자 데이터 버전(users.change_seq)
+// ETag는 이 버전으로 만든다: 캐시가 다른 노드의 쓰기로 지워지지 않아도 이전 목록이 새 ETag로 나가지 않게
+public record SubjectList(long version, List<SubjectResponse> subjects) implements Serializable {
+}
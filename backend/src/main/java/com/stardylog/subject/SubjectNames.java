@@ -0,0 +1,22 @@
+package com.stardylog.subject;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+
+// 과목 이름 비교 키: DB가 subjects.name을 비교하는 규칙에 맞춘다
+// 기본 콜레이션(utf8mb4_0900_ai_ci)은 대소문자와 악센트를 구분하지 않으므로 "Math"와 "math"는 같은 이름
+// (findByUserUidAndNameAndDeletedFalse 같은 DB 조회와 메모리에서의 비교가 같은 답을 내도록)
+final class SubjectNames {
+
+    private SubjectNames() {
+    }
+
+    static CollationKey key(String name) {
+        // Collator는 스레드 안전하지 않으므로 매번 새로 (getInstance는 캐시된 규칙을 복제만 한다)
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION); // 조합형 악센트 문자도 기본 글자와 같게
+        return collator.getCollationKey(name);
+    }
+}
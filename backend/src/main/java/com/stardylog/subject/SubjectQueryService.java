@@ -0,0 +1,42 @@
+package com.stardylog.subject;
+
+import com.stardylog.api.dto.SubjectResponse;
+import com.stardylog.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// 사용자별 과목 목록 조회 + 캐시
+// 캐시 구현은 spring.cache.type으로 교체 가능 (단일 노드: caffeine, 여러 노드: redis 등 공유 캐시)
+// 과목을 추가/수정/삭제한 쪽에서 evict(uid)로 무효화한다
+// 캐시는 노드마다 따로라 다른 노드의 쓰기로는 지워지지 않으므로, 목록과 함께 읽은 버전을 같이 두고
+// 호출 측(SubjectController)이 그보다 새 버전을 알면 지우고 다시 읽는다
+@Service
+@RequiredArgsConstructor
+public class SubjectQueryService {
+
+    public static final String CACHE_NAME = "subjects";
+
+    private final SubjectRepository subjectRepository;
+    private final UserRepository userRepository;
+
+    // sync: 캐시가 비어 있을 때 같은 uid의 동시 요청은 한 번만 조회하고 결과를 같이 받는다
+    // 버전을 먼저 읽는다: 사이에 쓰기가 커밋돼도 목록이 버전보다 새로울 뿐, 이전 목록에 새 버전이 붙지는 않는다
+    @Cacheable(cacheNames = CACHE_NAME, key = "#uid", sync = true)
+    @Transactional(readOnly = true)
+    public SubjectList findActive(String uid) {
+        long version = userRepository.findChangeSeq(uid).orElse(0L);
+        List<SubjectResponse> subjects = subjectRepository.findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(uid).stream()
+                .map(SubjectResponse::fromEntity)
+                .toList();
+        return new SubjectList(version, subjects);
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#uid")
+    public void evict(String uid) {
+    }
+}
@@ -1,17 +1,33 @@
 package com.stardylog.subject; // 패키지 이름 확인!
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 import java.util.Optional;
 
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
 
-    // 특정 사용자의 삭제되지 않은 과목 목록 찾기
-    List<Subject> findByUserUidAndDeletedFalseOrderByIdAsc(String userUid);
+    // 특정 사용자의 삭제되지 않은 과목 목록 찾기 (표시 순서)
+    List<Subject> findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(String userUid);
+
+    // 새 과목을 맨 뒤에 붙이기 위한 현재 마지막 순서 (과목이 없으면 0)
+    @Query("select coalesce(max(s.sortOrder), 0) from Subject s where s.user.uid = :uid and s.deleted = false")
+    int findMaxSortOrder(String uid);
 
     // 특정 사용자의 특정 이름(삭제되지 않은) 과목 찾기 (중복 방지용)
     Optional<Subject> findByUserUidAndNameAndDeletedFalse(String userUid, String name);
 
     // (선택) ID와 사용자 UID로 삭제되지 않은 과목 찾기 (수정/삭제 시 본인 확인용)
     Optional<Subject> findByIdAndUserUidAndDeletedFalse(Long id, String userUid);
-}
\ No newline at end of file
+
+    // 델타 동기화: since 이후 변경된 과목 (삭제된 과목 포함)
+    List<Subject> findByUserUidAndChangeVersionGreaterThanOrderByChangeVersionAsc(String userUid, long since, Limit limit);
+
+    // 변경 번호 도입 전에 만들어진 과목 (ChangeVersionBackfillJob)
+    @Query("select s.id from Subject s where s.user.uid = :uid and s.changeVersion = 0 order by s.id asc")
+    List<Long> findUnversionedIds(String uid);
+
+    // 이름 -> id 조회용 (SubjectResolver). 삭제된 과목 포함
+    List<Subject> findByUserUidOrderByIdAsc(String userUid);
+}
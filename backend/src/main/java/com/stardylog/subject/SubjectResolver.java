@@ -0,0 +1,176 @@
+package com.stardylog.subject;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.text.CollationKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 공부 기록의 과목 이름 -> 과목 id 변환 (기록 저장/백필에서 사용)
+// - 사용자별 이름->id 맵을 캐시해서 저장 요청마다 subjects를 조회하지 않는다
+//   캐시한 맵은 그때의 users.change_seq와 함께 두고, 쓸 때마다 사용자 행 잠금 아래에서 지금 번호와 비교한다.
+//   과목 추가/수정/삭제는 모두 change_seq를 올리므로 다른 노드에서 바뀌었어도 번호가 달라 다시 읽는다
+// - 이름은 DB와 같은 규칙(대소문자/악센트 무시, SubjectNames)으로 비교한다
+// - 같은 이름이 여러 개면 삭제되지 않은 과목, 없으면 가장 최근에 삭제된 과목
+// - 어느 쪽도 없으면 그 이름으로 과목을 새로 만든다 (앱이 과목보다 기록을 먼저 올린 경우)
+//   만든 과목은 로그와 subjects.created.from.logs 지표로 남는다. create-from-logs=false면 모르는 이름은 400
+// - subjects.name보다 긴 이름은 400 (잘라서 만들면 서로 다른 이름이 같은 과목으로 합쳐진다)
+// 이 노드에서 과목이 추가/수정/삭제되면 커밋 후 evict(uid)로 바로 비운다
+// DB 조회/INSERT는 캐시의 compute 밖에서 한다 (같은 키의 잠금을 I/O 동안 잡지 않게)
+@Slf4j
+@Component
+public class SubjectResolver implements MeterBinder {
+
+    public static final int MAX_NAME_LENGTH = 50; // subjects.name 길이
+
+    private final SubjectRepository subjectRepository;
+    private final SubjectQueryService subjectQueryService;
+    private final UserRepository userRepository;
+    private final ChangeVersionAllocator changeVersionAllocator;
+    private final boolean createFromLogs;
+    private final Cache<String, Known> idsByUser;
+    private Counter createdFromLogs;
+
+    public SubjectResolver(SubjectRepository subjectRepository,
+                           SubjectQueryService subjectQueryService,
+                           UserRepository userRepository,
+                           ChangeVersionAllocator changeVersionAllocator,
+                           @Value("${stardylog.subjects.resolver-cache.max-size:10000}") long maxSize,
+                           @Value("${stardylog.subjects.resolver-cache.ttl:PT30M}") Duration ttl,
+                           @Value("${stardylog.subjects.create-from-logs:true}") boolean createFromLogs) {
+        this.subjectRepository = subjectRepository;
+        this.subjectQueryService = subjectQueryService;
+        this.userRepository = userRepository;
+        this.changeVersionAllocator = changeVersionAllocator;
+        this.createFromLogs = createFromLogs;
+        this.idsByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // 이름별 과목 id. 호출 측이 사용자 행을 잠근 트랜잭션 안에서 호출해야 같은 이름이 두 번 만들어지지 않는다
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Long> resolve(String uid, Collection<String> names) {
+        return resolve(uid, names, createFromLogs);
+    }
+
+    // 백필용: create-from-logs 설정과 상관없이 없는 과목을 만든다 (옛 기록의 과목 이름을 잃지 않게)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Long> resolveCreatingMissing(String uid, Collection<String> names) {
+        return resolve(uid, names, true);
+    }
+
+    private Map<String, Long> resolve(String uid, Collection<String> names, boolean create) {
+        for (String name : names) {
+            if (name.length() > MAX_NAME_LENGTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Subject name too long");
+            }
+        }
+        Map<CollationKey, Long> known = known(uid);
+        Map<CollationKey, Long> createdIds = new HashMap<>();
+        Map<String, Long> result = new HashMap<>();
+        for (String name : names) {
+            CollationKey key = SubjectNames.key(name);
+            Long id = known.get(key);
+            if (id == null) {
+                // 이번 요청 안에서 "Math"와 "math"처럼 같은 이름이면 하나만 만든다
+                id = createdIds.get(key);
+                if (id == null) {
+                    id = create(uid, name, create);
+                    createdIds.put(key, id);
+                }
+            }
+            result.put(name, id);
+        }
+        if (!createdIds.isEmpty()) {
+            // 롤백되면 없는 id가 캐시에 남지 않도록, 커밋된 뒤에 다시 읽게 한다
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(uid);
+                    subjectQueryService.evict(uid);
+                }
+            });
+        }
+        return result;
+    }
+
+    public void evict(String uid) {
+        idsByUser.invalidate(uid);
+    }
+
+    // 호출 측이 사용자 행을 잠근 뒤라 change_seq는 커밋된 최신 값이고, 잠금을 쥔 동안 다른 트랜잭션이 과목을 바꾸지 못한다
+    private Map<CollationKey, Long> known(String uid) {
+        long changeSeq = userRepository.findChangeSeq(uid).orElse(0L);
+        Known cached = idsByUser.getIfPresent(uid);
+        if (cached != null && cached.changeSeq() == changeSeq) return cached.ids();
+        Map<CollationKey, Long> loaded = load(uid);
+        idsByUser.put(uid, new Known(changeSeq, loaded));
+        return loaded;
+    }
+
+    private Map<CollationKey, Long> load(String uid) {
+        List<Subject> subjects = subjectRepository.findByUserUidOrderByIdAsc(uid);
+        Map<CollationKey, Long> ids = new HashMap<>();
+        // id 순으로 덮어쓰므로 삭제된 과목은 가장 최근 것이 남고, 삭제되지 않은 과목이 있으면 그것이 우선
+        for (Subject s : subjects) {
+            if (s.isDeleted()) ids.put(SubjectNames.key(s.getName()), s.getId());
+        }
+        for (Subject s : subjects) {
+            if (!s.isDeleted()) ids.put(SubjectNames.key(s.getName()), s.getId());
+        }
+        return Map.copyOf(ids);
+    }
+
+    private Long create(String uid, String name, boolean create) {
+        if (!create) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown subject: " + name);
+        }
+        // 변경 번호를 먼저 받아 사용자 행을 잠근 뒤 정렬 순서를 읽는다
+        long version = changeVersionAllocator.allocate(uid, 1);
+        Subject subject = Subject.builder()
+                .user(userRepository.getReferenceById(uid))
+                .name(name)
+                .sortOrder(subjectRepository.findMaxSortOrder(uid) + 1)
+                .createdAt(Instant.now())
+                .deleted(false)
+                .changeVersion(version)
+                .build();
+        Long id = subjectRepository.save(subject).getId();
+        log.info("Created subject {} for user {} from study logs", id, uid);
+        if (createdFromLogs != null) createdFromLogs.increment();
+        return id;
+    }
+
+    private record Known(long changeSeq, Map<CollationKey, Long> ids) {}
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, idsByUser, "subjectIds");
+        createdFromLogs = Counter.builder("subjects.created.from.logs")
+                .description("Subjects created because a study log named a subject the user did not have")
+                .register(registry);
+    }
+}
@@ -0,0 +1,240 @@
+package com.stardylog.subject;
+
+import com.stardylog.api.dto.SubjectBatchRequest;
+import com.stardylog.api.dto.SubjectRequest;
+import com.stardylog.api.dto.SubjectResponse;
+import com.stardylog.api.dto.SubjectUpdateRequest;
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.User;
+import com.stardylog.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.text.CollationKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 과목 추가/수정/삭제
+// 변경마다 새 change version을 부여하고(델타 동기화), 커밋된 뒤에 목록 캐시와 이름->id 캐시를 무효화한다
+// 변경 번호 발급(또는 findByIdForUpdate)으로 사용자 행을 먼저 잠근 뒤에 과목을 읽는다.
+// 읽고 나서 잠그면 같은 사용자의 동시 변경이 같은 정렬 순서/이름 검사 결과를 보고 둘 다 저장된다
+// (MySQL REPEATABLE READ는 첫 일반 SELECT에서 스냅샷을 잡으므로 잠금 전에는 어떤 조회도 하지 않는다)
+@Service
+@RequiredArgsConstructor
+public class SubjectService {
+
+    private final SubjectRepository subjectRepository;
+    private final SubjectQueryService subjectQueryService;
+    private final UserRepository userRepository;
+    private final ChangeVersionAllocator changeVersionAllocator;
+    private final SubjectResolver subjectResolver;
+    private final SubjectBulkWriter subjectBulkWriter;
+
+    @Transactional
+    public SubjectResponse add(String uid, SubjectRequest request) {
+        long version = changeVersionAllocator.allocate(uid, 1);
+        User user = userRepository.getReferenceById(uid);
+
+        // 중복 이름 체크
+        checkNameAvailable(uid, request.name(), null);
+
+        Subject newSubject = Subject.builder()
+                .user(user)
+                .name(request.name())
+                .color(request.color())
+                .sortOrder(subjectRepository.findMaxSortOrder(uid) + 1) // 맨 뒤에 추가
+                .createdAt(Instant.now())
+                .deleted(false)
+                .changeVersion(version)
+                .build();
+
+        Subject savedSubject = subjectRepository.save(newSubject);
+        evictAfterCommit(uid);
+        return SubjectResponse.fromEntity(savedSubject);
+    }
+
+    @Transactional
+    public SubjectResponse update(String uid, Long id, SubjectRequest request) {
+        long version = changeVersionAllocator.allocate(uid, 1);
+        Subject subject = findOwned(uid, id);
+
+        // 수정하려는 이름이 이미 다른 과목에 사용 중인지 체크 (자기 자신 제외)
+        checkNameAvailable(uid, request.name(), id);
+
+        subject.setName(request.name());
+        subject.setColor(request.color());
+        subject.setChangeVersion(version);
+        evictAfterCommit(uid);
+        return SubjectResponse.fromEntity(subject);
+    }
+
+    // 논리적 삭제 (Soft Delete): 행은 남겨 두고 델타 동기화에서 툼스톤으로 내려준다
+    @Transactional
+    public void delete(String uid, Long id) {
+        long version = changeVersionAllocator.allocate(uid, 1);
+        Subject subject = findOwned(uid, id);
+        subject.setDeleted(true);
+        subject.setDeletedAt(Instant.now());
+        subject.setChangeVersion(version);
+        evictAfterCommit(uid);
+    }
+
+    // 일괄 추가/수정/삭제 (온보딩에서 과목 여러 개 가져오기 등). 결과 과목 목록을 돌려준다
+    // - 변경 번호를 먼저 발급해 사용자 행을 잠그므로, 같은 사용자의 과목 변경과 겹치지 않는다
+    // - 과목 목록을 한 번 읽어서 소유 확인과 이름 중복 검사를 메모리에서 한다
+    // - 수정/삭제는 Hibernate UPDATE 배치, 추가는 JDBC 배치 INSERT
+    @Transactional
+    public List<SubjectResponse> applyBatch(String uid, SubjectBatchRequest request) {
+        int changes = request.create().size() + request.update().size() + request.delete().size();
+        if (changes == 0) return listActive(uid);
+        long version = changeVersionAllocator.allocate(uid, changes);
+
+        Map<Long, Subject> active = new LinkedHashMap<>();
+        for (Subject s : subjectRepository.findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(uid)) {
+            active.put(s.getId(), s);
+        }
+        Set<Long> deleteIds = new HashSet<>();
+        Map<Long, SubjectUpdateRequest> updates = new HashMap<>();
+        for (Long id : request.delete()) {
+            if (!deleteIds.add(id)) throw duplicateId(id);
+        }
+        for (SubjectUpdateRequest update : request.update()) {
+            if (deleteIds.contains(update.id()) || updates.put(update.id(), update) != null) throw duplicateId(update.id());
+        }
+        for (Long id : deleteIds) requireOwned(active, id);
+        for (Long id : updates.keySet()) requireOwned(active, id);
+
+        // 변경 후 남는 과목 이름이 겹치지 않는지 (기존 과목끼리 이름을 맞바꾸는 것도 허용)
+        // 한 건씩 추가할 때의 DB 조회와 같은 규칙으로 비교 ("Math"와 "math"는 같은 이름)
+        Set<CollationKey> names = new HashSet<>();
+        for (Subject s : active.values()) {
+            if (deleteIds.contains(s.getId())) continue;
+            SubjectUpdateRequest update = updates.get(s.getId());
+            checkUnique(names, update != null ? update.name() : s.getName());
+        }
+        for (SubjectRequest create : request.create()) {
+            checkUnique(names, create.name());
+        }
+
+        Instant now = Instant.now();
+        int maxSortOrder = 0;
+        for (Subject s : active.values()) {
+            maxSortOrder = Math.max(maxSortOrder, s.getSortOrder());
+            if (deleteIds.contains(s.getId())) {
+                s.setDeleted(true);
+                s.setDeletedAt(now);
+                s.setChangeVersion(version++);
+            } else if (updates.containsKey(s.getId())) {
+                SubjectUpdateRequest update = updates.get(s.getId());
+                s.setName(update.name());
+                s.setColor(update.color());
+                s.setChangeVersion(version++);
+            }
+        }
+        List<Subject> created = new ArrayList<>(request.create().size());
+        for (SubjectRequest create : request.create()) {
+            created.add(Subject.builder()
+                    .name(create.name())
+                    .color(create.color())
+                    .sortOrder(++maxSortOrder)
+                    .createdAt(now)
+                    .changeVersion(version++)
+                    .build());
+        }
+        subjectRepository.flush();
+        subjectBulkWriter.insert(uid, created);
+
+        evictAfterCommit(uid);
+        return listActive(uid);
+    }
+
+    // 표시 순서 변경. ids는 삭제되지 않은 과목 전체를 원하는 순서대로 (순서가 바뀐 과목만 변경 번호 발급)
+    // 발급할 번호 수는 읽어 봐야 알 수 있으므로 사용자 행을 먼저 잠그고 읽는다
+    @Transactional
+    public List<SubjectResponse> reorder(String uid, List<Long> ids) {
+        if (userRepository.findByIdForUpdate(uid).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        Map<Long, Subject> active = new HashMap<>();
+        for (Subject s : subjectRepository.findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(uid)) {
+            active.put(s.getId(), s);
+        }
+        if (ids.size() != active.size() || !active.keySet().equals(new HashSet<>(ids))) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "과목 목록이 바뀌었습니다. 목록을 다시 불러와 주세요.");
+        }
+
+        List<Subject> ordered = ids.stream().map(active::get).toList();
+        int moved = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).getSortOrder() != i + 1) moved++;
+        }
+        if (moved > 0) {
+            long version = changeVersionAllocator.allocate(uid, moved);
+            for (int i = 0; i < ordered.size(); i++) {
+                Subject s = ordered.get(i);
+                if (s.getSortOrder() == i + 1) continue;
+                s.setSortOrder(i + 1);
+                s.setChangeVersion(version++);
+            }
+            evictAfterCommit(uid);
+        }
+        return ordered.stream().map(SubjectResponse::fromEntity).toList();
+    }
+
+    private List<SubjectResponse> listActive(String uid) {
+        return subjectRepository.findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(uid).stream()
+                .map(SubjectResponse::fromEntity)
+                .toList();
+    }
+
+    private static void requireOwned(Map<Long, Subject> active, Long id) {
+        if (!active.containsKey(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Subject not found or unauthorized: " + id);
+        }
+    }
+
+    private static void checkUnique(Set<CollationKey> names, String name) {
+        if (!names.add(SubjectNames.key(name))) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 사용 중인 과목 이름입니다: " + name);
+        }
+    }
+
+    private static ResponseStatusException duplicateId(Long id) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Subject " + id + " appears more than once");
+    }
+
+    private Subject findOwned(String uid, Long id) {
+        return subjectRepository.findByIdAndUserUidAndDeletedFalse(id, uid)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Subject not found or unauthorized"));
+    }
+
+    private void checkNameAvailable(String uid, String name, Long selfId) {
+        subjectRepository.findByUserUidAndNameAndDeletedFalse(uid, name)
+                .filter(s -> !s.getId().equals(selfId))
+                .ifPresent(s -> {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 사용 중인 과목 이름입니다.");
+                });
+    }
+
+    // 커밋 전에 지우면 그 사이 다른 요청이 옛 목록을 다시 캐시할 수 있으므로 커밋 후에 무효화
+    private void evictAfterCommit(String uid) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                subjectQueryService.evict(uid);
+                subjectResolver.evict(uid);
+            }
+        });
+    }
+}
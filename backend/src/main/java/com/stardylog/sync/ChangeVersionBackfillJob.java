@@ -0,0 +1,84 @@
+package com.stardylog.sync;
+
+import com.stardylog.log.StudyLogRepository;
+import com.stardylog.subject.SubjectRepository;
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// change_version 도입 전에 저장된 과목/기록(change_version = 0)에 번호를 붙인다
+// 번호가 없는 행은 델타 동기화 since=0 조회에서 빠지므로, 도입 후 한 번 stardylog.sync.backfill-on-startup=true 로 기동한다
+// (이미 번호가 있는 행은 건드리지 않으므로 다시 돌려도 안전)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeVersionBackfillJob implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final StudyLogRepository studyLogRepository;
+    private final ChangeVersionAllocator changeVersionAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stardylog.sync.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${stardylog.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    public void backfillAll() {
+        long rows = 0;
+        for (String uid : userRepository.findAllUids()) {
+            rows += backfill(uid);
+        }
+        log.info("change_version backfilled for {} rows", rows);
+    }
+
+    // 사용자 단위 트랜잭션. 번호 발급이 사용자 행을 잠그므로 동시에 들어오는 쓰기와 번호가 겹치지 않는다
+    public long backfill(String uid) {
+        Long updated = transactionTemplate.execute(status -> {
+            if (userRepository.findByIdForUpdate(uid).isEmpty()) return 0L;
+            List<Long> subjectIds = subjectRepository.findUnversionedIds(uid);
+            List<Long> logIds = studyLogRepository.findUnversionedIds(uid);
+            int count = subjectIds.size() + logIds.size();
+            if (count == 0) return 0L;
+
+            // 과목을 먼저 번호 매겨서 클라이언트가 기록보다 과목을 먼저 받게 한다
+            long first = changeVersionAllocator.allocate(uid, count);
+            assign("update subjects set change_version = ? where id = ?", subjectIds, first);
+            assign("update study_logs set change_version = ? where id = ?", logIds, first + subjectIds.size());
+            return (long) count;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    private void assign(String sql, List<Long> ids, long firstVersion) {
+        if (ids.isEmpty()) return;
+        List<long[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            rows.add(new long[]{firstVersion + i, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate(sql, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row[0]);
+            ps.setLong(2, row[1]);
+        });
+    }
+}
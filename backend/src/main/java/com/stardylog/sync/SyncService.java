@@ -0,0 +1,63 @@
+package com.stardylog.sync;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import com.stardylog.api.dto.SubjectSyncResponse;
+import com.stardylog.api.dto.SyncResponse;
+import com.stardylog.log.StudyLogChange;
+import com.stardylog.log.StudyLogRepository;
+import com.stardylog.subject.Subject;
+import com.stardylog.subject.SubjectRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 델타 동기화: 과목과 공부 기록은 사용자별로 하나의 change version 수열을 공유하므로
+// 두 테이블에서 since 이후 변경을 번호 순으로 합쳐 limit개까지 내려준다.
+// 토큰은 마지막으로 내려준 변경 번호 (없으면 0 = 처음부터)
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private final SubjectRepository subjectRepository;
+    private final StudyLogRepository studyLogRepository;
+
+    // 두 조회가 같은 스냅샷을 보도록 한 읽기 트랜잭션에서 실행
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(String uid, long since, int limit) {
+        // 각 테이블에서 limit+1개를 읽어 합친 뒤 남는 것이 있으면 hasMore
+        List<Subject> subjects = subjectRepository.findByUserUidAndChangeVersionGreaterThanOrderByChangeVersionAsc(uid, since, Limit.of(limit + 1));
+        List<StudyLogChange> logs = studyLogRepository.findChanges(uid, since, Limit.of(limit + 1));
+
+        List<SubjectSyncResponse> subjectChanges = new ArrayList<>();
+        List<StudyLogResponse> logChanges = new ArrayList<>();
+        long last = since;
+        int s = 0, l = 0;
+        while (subjectChanges.size() + logChanges.size() < limit && (s < subjects.size() || l < logs.size())) {
+            boolean takeSubject = l >= logs.size()
+                    || (s < subjects.size() && subjects.get(s).getChangeVersion() < logs.get(l).changeVersion());
+            if (takeSubject) {
+                Subject subject = subjects.get(s++);
+                subjectChanges.add(SubjectSyncResponse.fromEntity(subject));
+                last = subject.getChangeVersion();
+            } else {
+                StudyLogChange log = logs.get(l++);
+                logChanges.add(log.toResponse());
+                last = log.changeVersion();
+            }
+        }
+        boolean hasMore = s < subjects.size() || l < logs.size();
+        return new SyncResponse(subjectChanges, logChanges, Long.toString(last), hasMore);
+    }
+
+    // 클라이언트가 보낸 토큰 해석 (생략하면 처음부터). 잘못된 값이면 IllegalArgumentException
+    public static long parseToken(String token) {
+        if (token == null || token.isBlank()) return 0;
+        long since = Long.parseLong(token);
+        if (since < 0) throw new IllegalArgumentException("negative sync token");
+        return since;
+    }
+}
@@ -0,0 +1,48 @@
+package com.stardylog.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+// 사용자별 변경 번호(change version) 발급
+// users.change_seq를 UPDATE로 올리므로 그 사용자 행은 트랜잭션이 끝날 때까지 잠긴다.
+// 그래서 같은 사용자의 쓰기는 번호 순서대로 커밋되고, 동기화에서 "since 이후" 조회가 빠뜨리는 변경이 없다.
+// 번호는 조건부 GET의 버전으로도 쓰므로, 번호를 올리면 커밋 뒤 이 노드의 UserVersionTracker 값을 지운다.
+// 프로필 변경은 따로 profile_seq를 올린다 (touchProfile).
+@Component
+@RequiredArgsConstructor
+public class ChangeVersionAllocator {
+
+    private final UserRepository userRepository;
+    private final UserVersionTracker versionTracker;
+
+    // count개의 연속된 번호를 발급하고 첫 번호를 돌려준다 (first .. first + count - 1)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long allocate(String uid, int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
+        if (userRepository.incrementChangeSeq(uid, count) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        versionTracker.invalidateAfterCommit(uid);
+        return current(uid) - count + 1;
+    }
+
+    // 프로필(닉네임/email/provider)이 바뀌었을 때: /me ETag용 profile_seq만 올린다
+    // (change_seq는 과목/기록 ETag와 델타 동기화, 인사이트 갱신 대상의 기준이라 건드리지 않는다)
+    @Transactional
+    public void touchProfile(String uid) {
+        if (userRepository.incrementProfileSeq(uid) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        versionTracker.invalidateAfterCommit(uid);
+    }
+
+    // 지금까지 발급된 마지막 번호 (변경이 없었다면 0)
+    public long current(String uid) {
+        return userRepository.findChangeSeq(uid)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+}
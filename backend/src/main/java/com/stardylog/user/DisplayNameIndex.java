@@ -0,0 +1,162 @@
+package com.stardylog.user;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 사용 중인 닉네임 색인 (노드 메모리)
+// - 기동 시 users.display_name 전체를 읽어 Bloom filter + 정렬 맵(접두어 검색)을 만든다
+// - 이 노드에서 닉네임이 바뀌면 바로 반영하고, refresh-interval마다 DB에서 다시 만들어 다른 노드의 변경과 맞춘다
+// - 닉네임 입력 중 중복 확인/추천/자동 완성은 DB 없이 여기서 답한다
+// 다른 노드의 변경이 늦게 보일 수 있으므로 최종 판단은 uk_users_display_name 유니크 인덱스
+// 키는 소문자로 맞춘다 (users.display_name 콜레이션이 대소문자를 구분하지 않음)
+@Slf4j
+@Component
+public class DisplayNameIndex implements ApplicationRunner, MeterBinder {
+
+    private static final int MAX_LENGTH = 20; // DisplayNameRequest 최대 길이
+    private static final int SUGGESTION_ATTEMPTS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedNames;
+    private final double falsePositiveRate;
+
+    private volatile State state;
+    // 다시 만드는 중인 색인 (그동안의 변경을 양쪽에 반영한다, this로 보호)
+    private State building;
+
+    public DisplayNameIndex(JdbcTemplate jdbcTemplate,
+                            @Value("${stardylog.display-names.expected-names:1000000}") long expectedNames,
+                            @Value("${stardylog.display-names.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedNames = expectedNames;
+        this.falsePositiveRate = falsePositiveRate;
+        this.state = new State(new BloomFilter(expectedNames, falsePositiveRate));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refresh();
+    }
+
+    // DB에서 다시 만든다 (바뀌어서 더 이상 쓰지 않는 닉네임도 Bloom filter에서 빠진다)
+    @Scheduled(fixedDelayString = "${stardylog.display-names.refresh-interval:PT10M}",
+            initialDelayString = "${stardylog.display-names.refresh-interval:PT10M}")
+    public void refresh() {
+        State next = new State(new BloomFilter(Math.max(expectedNames, size() * 2L), falsePositiveRate));
+        synchronized (this) {
+            building = next;
+        }
+        try {
+            jdbcTemplate.query("select display_name from users where display_name is not null",
+                    rs -> { next.add(rs.getString(1)); });
+            synchronized (this) {
+                state = next;
+            }
+            log.debug("display name index loaded: {} names", next.names.size());
+        } catch (RuntimeException e) {
+            log.warn("failed to load display name index", e);
+        } finally {
+            synchronized (this) {
+                building = null;
+            }
+        }
+    }
+
+    // 다른 사용자가 쓰고 있을 수 있으면 true (Bloom filter가 없다고 하면 정렬 맵까지 보지 않는다)
+    public boolean isTaken(String displayName) {
+        State current = state;
+        String key = normalize(displayName);
+        return current.bloom.mightContain(key) && current.names.containsKey(key);
+    }
+
+    // displayName 기반으로 지금 비어 있는 닉네임 후보 (뒤에 숫자를 붙인다)
+    public List<String> suggest(String displayName, int limit) {
+        String base = displayName.length() > MAX_LENGTH - 2 ? displayName.substring(0, MAX_LENGTH - 2) : displayName;
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (int i = 1; i <= SUGGESTION_ATTEMPTS && suggestions.size() < limit; i++) {
+            // 앞쪽은 짧은 번호부터, 이후는 무작위 번호 (인기 있는 이름은 낮은 번호가 이미 차 있다)
+            int number = i <= 9 ? i : ThreadLocalRandom.current().nextInt(10, 10_000);
+            String candidate = base + number;
+            if (candidate.length() > MAX_LENGTH) candidate = base.substring(0, MAX_LENGTH - String.valueOf(number).length()) + number;
+            if (!isTaken(candidate)) suggestions.add(candidate);
+        }
+        return List.copyOf(suggestions);
+    }
+
+    // 접두어로 시작하는 사용 중인 닉네임 (사전 순)
+    public List<String> searchPrefix(String prefix, int limit) {
+        String from = normalize(prefix);
+        ConcurrentNavigableMap<String, String> range = state.names.subMap(from, true, from + Character.MAX_VALUE, false);
+        List<String> result = new ArrayList<>(Math.min(limit, 64));
+        for (String name : range.values()) {
+            if (result.size() >= limit) break;
+            result.add(name);
+        }
+        return result;
+    }
+
+    // 이 노드에서 닉네임 변경이 커밋된 뒤 호출
+    public synchronized void changed(String oldName, String newName) {
+        if (oldName != null) {
+            state.remove(oldName);
+            if (building != null) building.remove(oldName);
+        }
+        if (newName != null) {
+            state.add(newName);
+            if (building != null) building.add(newName);
+        }
+    }
+
+    public int size() {
+        return state.names.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.display_names.indexed", this, DisplayNameIndex::size)
+                .description("Display names held in the in-memory index")
+                .register(registry);
+    }
+
+    private static String normalize(String displayName) {
+        return displayName.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class State {
+        private final BloomFilter bloom;
+        // 소문자 키 -> 실제 닉네임
+        private final ConcurrentSkipListMap<String, String> names = new ConcurrentSkipListMap<>();
+
+        private State(BloomFilter bloom) {
+            this.bloom = bloom;
+        }
+
+        private void add(String displayName) {
+            String key = normalize(displayName);
+            bloom.add(key);
+            names.put(key, displayName);
+        }
+
+        // Bloom filter에는 남는다 (다음 refresh에서 빠짐). 정렬 맵에서만 제거
+        private void remove(String displayName) {
+            names.remove(normalize(displayName));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.stardylog.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 인증된 요청마다 users 테이블에 쓰지 않도록 로그인 정보를 추적한다.
+// - 처음 보는 uid이거나 email/provider가 바뀐 경우에만 즉시 INSERT/UPDATE
+// - lastLoginAt은 메모리에 모아 두었다가 flush-interval마다 한 번에 반영 (uid당 주기마다 최대 1회)
+// - email/provider 변경은 profile_seq를 올린다 (/me ETag). lastLoginAt은 어떤 번호도 올리지 않는다
+// - 기존 사용자는 엔티티를 저장하지 않고 바뀐 컬럼만 UPDATE (읽은 뒤 커밋된 닉네임 변경을 덮어쓰지 않게)
+@Slf4j
+@Component
+public class LoginTracker implements MeterBinder {
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final ChangeVersionAllocator changeVersionAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    // 이 노드가 DB와 일치한다고 알고 있는 유저 정보 (uid -> email/provider)
+    private final Cache<String, KnownUser> knownUsers;
+    // 아직 DB에 반영하지 않은 마지막 로그인 시각 (uid -> lastLoginAt)
+    private final Map<String, Instant> pendingLogins = new ConcurrentHashMap<>();
+
+    public LoginTracker(UserRepository userRepository,
+                        ChangeVersionAllocator changeVersionAllocator,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${stardylog.login-tracking.known-users-max-size:100000}") long knownUsersMaxSize) {
+        this.userRepository = userRepository;
+        this.changeVersionAllocator = changeVersionAllocator;
+        this.transactionTemplate = transactionTemplate;
+        this.knownUsers = Caffeine.newBuilder()
+                .maximumSize(knownUsersMaxSize)
+                .build();
+    }
+
+    public void onAuthenticated(String uid, String email, String provider) {
+        KnownUser current = new KnownUser(email, provider);
+        if (current.equals(knownUsers.getIfPresent(uid))) {
+            // 변경 없음: 로그인 시각만 기록해 두고 DB는 건드리지 않는다
+            pendingLogins.put(uid, Instant.now());
+            return;
+        }
+
+        Optional<User> userOptional = userRepository.findById(uid);
+        if (userOptional.isPresent()) {
+            User u = userOptional.get();
+            if (Objects.equals(u.getEmail(), email) && Objects.equals(u.getProvider(), provider)) {
+                pendingLogins.put(uid, Instant.now());
+            } else {
+                // email/provider가 바뀐 경우에만 UPDATE (로그인 시각도 같이 반영)
+                // 프로필 번호도 같은 트랜잭션에서 올린다 (둘 중 하나만 커밋되면 /me ETag가 바뀐 내용을 가리지 않게)
+                Instant now = Instant.now();
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.updateLogin(uid, email, provider, now);
+                    changeVersionAllocator.touchProfile(uid);
+                });
+                pendingLogins.remove(uid);
+            }
+        } else {
+            Instant now = Instant.now();
+            User u = User.builder()
+                    .uid(uid)
+                    .createdAt(now)
+                    .email(email)
+                    .provider(provider)
+                    .lastLoginAt(now)
+                    .build();
+            try {
+                userRepository.save(u); // INSERT 시도
+            } catch (DataIntegrityViolationException e) {
+                // [레이스 컨디션] 다른 요청이 방금 INSERT했다면, 오류를 무시합니다.
+                // 로그인 시각은 다음 flush 때 반영합니다.
+                log.debug("User already created by another request: uid={}", uid);
+                pendingLogins.put(uid, now);
+            }
+        }
+        knownUsers.put(uid, current);
+    }
+
+    // 모아 둔 lastLoginAt을 청크 단위로 한 트랜잭션에서 갱신 (last_login_at 컬럼만, 더 최신 시각일 때만)
+    @Scheduled(fixedDelayString = "${stardylog.login-tracking.flush-interval:PT5M}")
+    public void flush() {
+        if (pendingLogins.isEmpty()) return;
+
+        Map<String, Instant> drained = new HashMap<>();
+        for (String uid : new ArrayList<>(pendingLogins.keySet())) {
+            Instant at = pendingLogins.remove(uid);
+            if (at != null) drained.put(uid, at);
+        }
+
+        List<String> uids = new ArrayList<>(drained.keySet());
+        for (int i = 0; i < uids.size(); i += FLUSH_CHUNK_SIZE) {
+            List<String> chunk = uids.subList(i, Math.min(i + FLUSH_CHUNK_SIZE, uids.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (String uid : chunk) {
+                        userRepository.updateLastLoginAt(uid, drained.get(uid));
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 실패한 청크는 다음 주기에 다시 시도 (그 사이 더 최신 값이 들어왔으면 그것을 유지)
+                chunk.forEach(uid -> pendingLogins.merge(uid, drained.get(uid), (a, b) -> a.isAfter(b) ? a : b));
+                log.warn("lastLoginAt flush failed for {} users, will retry", chunk.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.login.pending", pendingLogins, Map::size)
+                .description("lastLoginAt updates waiting for the next flush")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record KnownUser(String email, String provider) {}
+}
@@ -7,7 +7,10 @@ import java.util.ArrayList;
 import java.util.List;
 import com.stardylog.subject.Subject;
 
-@Entity @Table(name = "users")
+@Entity @Table(name = "users", uniqueConstraints = {
+        // existsByDisplayName 조회 + 동시에 같은 닉네임을 저장하는 경우의 최종 보루 (V3__tuned_indexes.sql)
+        @UniqueConstraint(name = "uk_users_display_name", columnNames = "display_name")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class User {
     @Id
@@ -19,6 +22,19 @@ public class User {
     private Instant createdAt;
     private Instant lastLoginAt;
 
+    // 이 사용자의 과목/공부 기록 변경마다 1씩 증가하는 번호 (델타 동기화 기준)
+    // UserRepository.allocateChangeVersions로만 올린다. 엔티티 UPDATE가 덮어쓰지 않도록 updatable = false
+    @Column(name = "change_seq", nullable = false, updatable = false)
+    private long changeSeq;
+
+    // 프로필(닉네임/email/provider) 변경마다 1씩 증가하는 번호 (/me ETag). UserRepository.incrementProfileSeq로만 올린다
+    @Column(name = "profile_seq", nullable = false, updatable = false)
+    private long profileSeq;
+
+    // 공부 중 표시를 다른 사용자에게 공개하는지 (기본 비공개, PresenceVisibility)
+    @Column(name = "presence_visible", nullable = false)
+    private boolean presenceVisible;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default // Lombok Builder 사용 시 초기화
     private List<Subject> subjects = new ArrayList<>();
@@ -1,7 +1,67 @@
 package com.stardylog.user;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, String>{
     boolean existsByDisplayName(String displayName);
+
+    // SELECT ... FOR UPDATE: 같은 사용자의 기록 저장을 트랜잭션 단위로 직렬화할 때 사용
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.uid = :uid")
+    Optional<User> findByIdForUpdate(String uid);
+
+    @Query("select u.uid from User u order by u.uid")
+    List<String> findAllUids();
+
+    // afterUid 다음 uid들을 바이너리(대소문자 구분) 순서로. 처음부터면 afterUid = ""
+    // 이어서 실행하는 작업의 checkpoint 비교를 DB가 정렬과 같은 규칙으로 한다 (uid 컬럼 정렬은 대소문자를 구분하지 않는다)
+    @Query(value = "select uid from users where cast(uid as binary) > cast(:afterUid as binary) order by cast(uid as binary)", nativeQuery = true)
+    List<String> findUidsAfter(String afterUid);
+
+    // change_seq/profile_seq는 엔티티로 쓰지 않고 아래 쿼리들로만 다룬다 (ChangeVersionAllocator)
+    @Modifying
+    @Query(value = "update users set change_seq = change_seq + :count where uid = :uid", nativeQuery = true)
+    int incrementChangeSeq(String uid, long count);
+
+    @Query(value = "select change_seq from users where uid = :uid", nativeQuery = true)
+    Optional<Long> findChangeSeq(String uid);
+
+    @Modifying
+    @Query(value = "update users set profile_seq = profile_seq + 1 where uid = :uid", nativeQuery = true)
+    int incrementProfileSeq(String uid);
+
+    // 로그인 정보 (LoginTracker): 엔티티 전체가 아니라 이 컬럼들만 쓴다 (그 사이 커밋된 닉네임 등을 덮어쓰지 않게)
+    @Modifying
+    @Query("update User u set u.email = :email, u.provider = :provider, u.lastLoginAt = :at where u.uid = :uid")
+    int updateLogin(String uid, String email, String provider, Instant at);
+
+    // 닉네임만 (MeController). uk_users_display_name 위반은 DataIntegrityViolationException
+    @Modifying
+    @Query("update User u set u.displayName = :displayName where u.uid = :uid")
+    int updateDisplayName(String uid, String displayName);
+
+    // 더 최신 시각일 때만 (다른 노드가 먼저 반영한 값을 되돌리지 않게)
+    @Modifying
+    @Query("update User u set u.lastLoginAt = :at where u.uid = :uid and (u.lastLoginAt is null or u.lastLoginAt < :at)")
+    int updateLastLoginAt(String uid, Instant at);
+
+    // 공부 중 표시를 공개한 사용자 (PresenceVisibility)
+    @Query("select u.uid from User u where u.uid in :uids and u.presenceVisible = true")
+    List<String> findPresenceVisible(Collection<? extends String> uids);
+
+    @Modifying
+    @Query("update User u set u.presenceVisible = :visible where u.uid = :uid")
+    int updatePresenceVisible(String uid, boolean visible);
+
+    @Query("select new com.stardylog.user.UserVersions(u.changeSeq, u.profileSeq) from User u where u.uid = :uid")
+    Optional<UserVersions> findVersions(String uid);
 }
@@ -0,0 +1,68 @@
+package com.stardylog.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// 사용자 데이터 버전 (조건부 GET의 ETag 재료)
+// - 과목/기록 응답은 users.change_seq, /me는 users.profile_seq (ChangeVersionAllocator가 올린다)
+// - lastLoginAt 반영은 어느 번호도 올리지 않는다: 로그인마다 바뀌는 값이라 넣으면 폴링하는 클라이언트가 304를 받지 못한다
+// - 노드 메모리에 version-ttl 동안 두고 그동안은 DB를 보지 않는다
+//   이 노드의 쓰기는 커밋 직후 지워서 바로 새 번호를 읽고, 다른 노드의 쓰기는 늦어도 version-ttl 뒤에 보인다
+@Component
+public class UserVersionTracker {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserVersions> versions;
+
+    public UserVersionTracker(UserRepository userRepository,
+                              @Value("${stardylog.etag.version-ttl:PT5S}") Duration ttl,
+                              @Value("${stardylog.etag.max-users:100000}") long maxUsers) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    // 없는 사용자는 0
+    public UserVersions current(String uid) {
+        return versions.get(uid, key -> userRepository.findVersions(key).orElse(UserVersions.NONE));
+    }
+
+    // 과목/기록 응답의 ETag (change_seq)
+    public String etag(String uid, String scope) {
+        return etag(uid, scope, current(uid).changeSeq());
+    }
+
+    // /me 응답의 ETag (profile_seq)
+    public String profileEtag(String uid) {
+        return etag(uid, "me", current(uid).profileSeq());
+    }
+
+    // 강한 ETag: 표현 종류(scope) + uid 해시 + 버전 (같은 기기에서 계정을 바꿔도 이전 사용자의 응답과 겹치지 않게)
+    public static String etag(String uid, String scope, long version) {
+        return "\"" + scope + "-" + Integer.toHexString(uid.hashCode()) + "-" + version + "\"";
+    }
+
+    // 트랜잭션 안이면 커밋된 뒤에, 아니면 바로 지운다 (롤백되면 그대로)
+    // afterCommit이 아니라 afterCompletion: 같은 트랜잭션의 다른 afterCommit(과목 목록 캐시 무효화 등)이 모두 끝난 뒤에
+    // 새 버전이 보여야, 새 ETag에 이전 캐시 내용이 실리지 않는다
+    public void invalidateAfterCommit(String uid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.invalidate(uid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) versions.invalidate(uid);
+            }
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.stardylog.user;
+
+// 사용자 데이터 버전 두 가지 (UserVersionTracker가 노드 메모리에 둔다)
+// - changeSeq: 과목/공부 기록 변경 번호 (users.change_seq, 델타 동기화와 같은 번호)
+// - profileSeq: 프로필(닉네임/email/provider) 변경 번호 (users.profile_seq)
+public record UserVersions(long changeSeq, long profileSeq) {
+
+    public static final UserVersions NONE = new UserVersions(0, 0);
+}
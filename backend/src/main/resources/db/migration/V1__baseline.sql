@@ -0,0 +1,39 @@
+-- 기준 스키마: Flyway 도입 전 ddl-auto=update가 엔티티(User, Subject, StudyLog)로 만들던 그대로
+-- (Instant 컬럼은 TIMESTAMP(6), 외래 키 이름만 Hibernate가 만든 해시 이름과 다르다)
+-- 그 시절에 만들어진 DB는 baseline-version=0으로 baseline된 뒤 이 파일이 실행되어도 if not exists라 바뀌는 것이 없다.
+-- 새 DB와 기존 DB 모두 이 스키마에서 V2__convert_baseline_schema.sql로 현재 스키마가 된다.
+
+create table if not exists users (
+    uid             varchar(255) not null,
+    created_at      timestamp(6) null,
+    display_name    varchar(255),
+    email           varchar(255),
+    last_login_at   timestamp(6) null,
+    provider        varchar(255),
+    primary key (uid)
+) engine = InnoDB;
+
+create table if not exists subjects (
+    id              bigint       not null auto_increment,
+    color           varchar(10),
+    created_at      timestamp(6) null,
+    deleted         bit          not null,
+    deleted_at      timestamp(6) null,
+    name            varchar(50)  not null,
+    user_uid        varchar(255) not null,
+    primary key (id),
+    constraint fk_subjects_user foreign key (user_uid) references users (uid)
+) engine = InnoDB;
+
+create table if not exists study_logs (
+    id                bigint       not null auto_increment,
+    duration_seconds  integer      not null,
+    end_time          timestamp(6) null,
+    interval_type     varchar(255),
+    session_id        varchar(255),
+    start_time        timestamp(6) null,
+    subject_name      varchar(255),
+    user_uid          varchar(255),
+    primary key (id),
+    constraint fk_study_logs_user foreign key (user_uid) references users (uid)
+) engine = InnoDB;
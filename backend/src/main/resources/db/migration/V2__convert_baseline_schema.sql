@@ -0,0 +1,178 @@
+-- V1(ddl-auto 시절 스키마)을 현재 엔티티 스키마로 바꾼다. 새 DB도 ddl-auto로 만들어진 DB도 같은 문장을 그대로 실행한다.
+-- 1) Instant 컬럼 TIMESTAMP(6) -> DATETIME(6), 값은 UTC
+--    (hibernate.type.preferred_instant_jdbc_type=TIMESTAMP, hibernate.jdbc.time_zone=UTC가 읽고 쓰는 형식).
+--    TIMESTAMP -> DATETIME 변환은 세션 시간대 기준 벽시계 값이 되므로 세션을 UTC로 두고 실행한다.
+-- 2) 기록 정리: start_time 없는 행, 새 컬럼 길이보다 긴 session_id / interval_type, 재전송으로 중복 저장된 구간
+-- 3) 과목 id 참조: 기록의 과목 이름을 subjects에서 찾고 (SubjectResolver와 같은 기준) 없으면 과목을 만든다
+-- 4) 변경 번호: 기존 과목/기록에 사용자별로 과목 -> 기록(각각 id 순) 순서로 1부터 붙이고 users.change_seq를 맞춘다
+-- 5) study_logs를 월 RANGE 파티션 테이블로 (외래 키 삭제, PK (id, start_time), 첫 기록의 달부터 이번 달까지 + p_future)
+-- 6) 롤업/보관 테이블 생성
+-- study_logs를 두 번 다시 쓰므로 기록이 많으면 점검 시간에 실행한다.
+-- 롤업과 랭킹 체크포인트는 비어 있는 상태로 끝나므로 이 마이그레이션 뒤 한 번
+--   stardylog.stats.rebuild-on-startup=true, stardylog.ranking.rebuild-on-startup=true
+-- 로 기동해서 다시 만든다 (인사이트는 다음 야간 계산이 처음부터 만든다).
+
+set @saved_time_zone = @@session.time_zone;
+set time_zone = '+00:00';
+
+-- 1) users, subjects
+alter table users
+    modify created_at    datetime(6),
+    modify last_login_at datetime(6),
+    add column change_seq bigint not null default 0;
+
+alter table subjects
+    modify created_at datetime(6),
+    modify deleted_at datetime(6),
+    add column change_version bigint not null default 0,
+    add index idx_subjects_user_version (user_uid, change_version);
+
+-- 2) 파티션 키(start_time)가 없는 기록은 end_time - duration으로 채우고, 그것도 없으면 버린다
+update study_logs
+set start_time = end_time - interval duration_seconds second
+where start_time is null and end_time is not null;
+
+delete from study_logs where start_time is null;
+
+-- session_id는 64자: 긴 값은 같은 세션끼리 계속 묶이도록 해시로 바꾼다 (잘라내면 다른 세션이 합쳐질 수 있다)
+update study_logs
+set session_id = concat('sha1:', sha1(session_id))
+where char_length(session_id) > 64;
+
+-- interval_type은 20자 (STUDY/BREAK). 긴 값은 BREAK가 아니므로 잘라도 공부 시간으로 집계되는 것은 같다
+update study_logs
+set interval_type = left(interval_type, 20)
+where char_length(interval_type) > 20;
+
+-- 재전송으로 같은 구간이 여러 번 저장된 기록은 가장 먼저 저장된 것만 남긴다 (uk_study_logs_session_interval과 같은 비교)
+delete l from study_logs l
+    join (select id,
+                 row_number() over (partition by user_uid, session_id, interval_type, start_time order by id) as rn
+          from study_logs
+          where user_uid is not null and session_id is not null and interval_type is not null) dup
+    on dup.id = l.id
+where dup.rn > 1;
+
+alter table study_logs
+    add column subject_id bigint,
+    add column change_version bigint not null default 0;
+
+-- 3) 그 이름의 과목이 하나도 없으면 만든다 (subjects.name보다 긴 이름은 과목 이름으로 남긴다)
+insert into subjects (user_uid, name, created_at, deleted)
+select l.user_uid, l.subject_name, utc_timestamp(6), 0
+from study_logs l
+where l.user_uid is not null
+  and l.subject_name is not null
+  and char_length(l.subject_name) <= 50
+  and not exists (select 1 from subjects s where s.user_uid = l.user_uid and s.name = l.subject_name)
+group by l.user_uid, l.subject_name;
+
+-- 이름이 같은 과목이 여러 개면 삭제되지 않은 것 중 가장 나중 것, 없으면 가장 나중에 삭제된 것
+update study_logs l
+    join (select id, user_uid, name,
+                 row_number() over (partition by user_uid, name order by deleted, id desc) as rn
+          from subjects) s
+    on s.user_uid = l.user_uid and s.name = l.subject_name and s.rn = 1
+set l.subject_id = s.id,
+    l.subject_name = null;
+
+-- 4) 변경 번호 (ChangeVersionBackfillJob과 같은 순서: 클라이언트가 기록보다 과목을 먼저 받는다)
+update subjects s
+    join (select id, row_number() over (partition by user_uid order by id) as version from subjects) v
+    on v.id = s.id
+set s.change_version = v.version;
+
+update study_logs l
+    join (select x.id,
+                 coalesce(c.subject_count, 0) + row_number() over (partition by x.user_uid order by x.id) as version
+          from study_logs x
+              left join (select user_uid, count(*) as subject_count from subjects group by user_uid) c
+              on c.user_uid = x.user_uid
+          where x.user_uid is not null) v
+    on v.id = l.id
+set l.change_version = v.version;
+
+update users u
+set u.change_seq = (select count(*) from subjects s where s.user_uid = u.uid)
+                 + (select count(*) from study_logs l where l.user_uid = u.uid);
+
+-- 5) 파티션 테이블은 외래 키를 가질 수 없다. ddl-auto가 만든 외래 키는 이름이 해시라 information_schema에서 찾는다
+--    (외래 키용으로 만들어진 같은 이름의 인덱스도 지운다: idx_study_logs_user_start가 대신한다)
+set @fk = (select constraint_name from information_schema.referential_constraints
+           where constraint_schema = database() and table_name = 'study_logs'
+           limit 1);
+
+set @sql = if(@fk is null, 'do 0', concat('alter table study_logs drop foreign key `', @fk, '`'));
+prepare stmt from @sql;
+execute stmt;
+deallocate prepare stmt;
+
+set @sql = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'study_logs' and index_name = @fk) = 0,
+              'do 0', concat('alter table study_logs drop index `', @fk, '`'));
+prepare stmt from @sql;
+execute stmt;
+deallocate prepare stmt;
+
+-- 모든 유니크 키(PK 포함)에 파티션 컬럼이 들어 있어야 한다
+alter table study_logs
+    modify session_id    varchar(64),
+    modify interval_type varchar(20),
+    modify start_time    datetime(6) not null,
+    modify end_time      datetime(6),
+    drop primary key,
+    add primary key (id, start_time),
+    add unique key uk_study_logs_session_interval (user_uid, session_id, interval_type, start_time),
+    add index idx_study_logs_user_start (user_uid, start_time),
+    add index idx_study_logs_user_version (user_uid, change_version),
+    add index idx_study_logs_user_subject_start (user_uid, subject_id, start_time);
+
+-- 첫 기록의 달(최대 10년 전, 그보다 오래된 기록은 첫 파티션에)부터 이번 달까지 월 파티션 + 비어 있는 p_future
+-- 이후 달은 StudyLogPartitionManager가 p_future에서 떼어 만든다 (이름 pYYYYMM, 경계는 UTC 월초)
+set session group_concat_max_len = 1048576;
+set @this_month = date_format(utc_timestamp(), '%Y-%m-01');
+set @first_month = (select date_format(min(start_time), '%Y-%m-01') from study_logs);
+set @first_month = greatest(least(coalesce(@first_month, @this_month), @this_month),
+                            date_format(utc_timestamp() - interval 120 month, '%Y-%m-01'));
+
+with recursive months (m) as (
+    select cast(@first_month as date)
+    union all
+    select m + interval 1 month from months where m < cast(@this_month as date)
+)
+select group_concat(concat('partition p', date_format(m, '%Y%m'),
+                           ' values less than (''', date_format(m + interval 1 month, '%Y-%m-%d'), ' 00:00:00'')')
+                    order by m separator ', ')
+into @partitions
+from months;
+
+set @sql = concat('alter table study_logs partition by range columns (start_time) (',
+                  @partitions, ', partition p_future values less than (maxvalue))');
+prepare stmt from @sql;
+execute stmt;
+deallocate prepare stmt;
+
+set time_zone = @saved_time_zone;
+
+-- 6) 통계 롤업 (과목 id 기준), 보관된 파티션 목록
+create table study_daily_stats (
+    id              bigint       not null auto_increment,
+    user_uid        varchar(255) not null,
+    stat_date       date         not null,
+    subject_id      bigint       not null,
+    study_seconds   bigint       not null,
+    break_seconds   bigint       not null,
+    log_count       integer      not null,
+    primary key (id),
+    unique key uk_study_daily_stats_user_date_subject_id (user_uid, stat_date, subject_id)
+) engine = InnoDB;
+
+create table study_log_archives (
+    partition_name  varchar(64)  not null,
+    range_start     datetime(6)  not null,
+    range_end       datetime(6)  not null,
+    file_name       varchar(255) not null,
+    row_count       bigint       not null,
+    archived_at     datetime(6),
+    primary key (partition_name)
+) engine = InnoDB;
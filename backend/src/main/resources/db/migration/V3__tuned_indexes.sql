@@ -0,0 +1,18 @@
+-- 컨트롤러가 매 요청 실행하는 조회를 인덱스로 처리
+-- (study_logs (user_uid, start_time)은 V2의 idx_study_logs_user_start)
+
+-- existsByDisplayName / 닉네임 중복 방지: 유니크 인덱스 (NULL은 여러 개 허용)
+-- ddl-auto 시절에는 중복 검사가 없었다. 같은 닉네임(컬럼 콜레이션 기준)은 가장 먼저 가입한 사용자만 유지하고
+-- 나머지는 비운다 (닉네임을 정하지 않은 사용자와 같은 상태, POST /me/display-name으로 다시 정한다)
+update users u
+    join (select uid, row_number() over (partition by display_name order by created_at, uid) as rn
+          from users
+          where display_name is not null) dup
+    on dup.uid = u.uid
+set u.display_name = null
+where dup.rn > 1;
+
+create unique index uk_users_display_name on users (display_name);
+
+-- 과목 목록 (user_uid = ? and deleted = false order by id), 본인 과목 확인 (id, user_uid, deleted)
+create index idx_subjects_user_deleted_id on subjects (user_uid, deleted, id);
@@ -0,0 +1,11 @@
+-- 랭킹 체크포인트: 기간(DAILY/WEEKLY/ALL_TIME)별 사용자 공부 시간 합계 (ALL_TIME은 period_start = 1970-01-01)
+create table leaderboard_scores (
+    period          varchar(16)  not null,
+    period_start    date         not null,
+    user_uid        varchar(255) not null,
+    study_seconds   bigint       not null,
+    primary key (period, period_start, user_uid)
+) engine = InnoDB;
+
+-- 롤업에서 체크포인트를 다시 만들 때 날짜 구간을 사용자별로 합산 (커버링 인덱스)
+create index idx_study_daily_stats_date_user on study_daily_stats (stat_date, user_uid, study_seconds);
@@ -0,0 +1,12 @@
+-- 과목 표시 순서: id 순 대신 sort_order 순 (PUT /api/subjects/order로 변경)
+alter table subjects add column sort_order integer not null default 0;
+
+-- 기존 과목은 지금까지 보이던 순서(id 순) 그대로
+update subjects s
+    join (select id, row_number() over (partition by user_uid order by id) as rn from subjects) ordered
+    on s.id = ordered.id
+set s.sort_order = ordered.rn;
+
+-- 과목 목록 (user_uid = ? and deleted = false order by sort_order, id)
+create index idx_subjects_user_deleted_sort on subjects (user_uid, deleted, sort_order, id);
+drop index idx_subjects_user_deleted_id on subjects;
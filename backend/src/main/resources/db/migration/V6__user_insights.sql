@@ -0,0 +1,20 @@
+-- 사용자별 공부 인사이트 (InsightsService가 야간에 change_version 이후 새 기록만 더해서 갱신)
+-- hour_study_seconds: stardylog.stats.zone 기준 0~23시별 공부 시간 24개를 쉼표로 이어 붙인 값
+-- session_study_seconds: 평균 세션 길이용, 세션 id가 있는 기록의 공부 시간 (세션 없는 옛 기록은 평균에서 뺀다)
+create table user_insights (
+    user_uid                varchar(255) not null,
+    change_version          bigint       not null,
+    study_seconds           bigint       not null,
+    break_seconds           bigint       not null,
+    session_study_seconds   bigint       not null,
+    study_intervals         bigint       not null,
+    break_intervals         bigint       not null,
+    session_count           bigint       not null,
+    longest_session_seconds bigint       not null,
+    hour_study_seconds      varchar(512) not null,
+    current_streak_days     integer      not null,
+    longest_streak_days     integer      not null,
+    last_study_date         date,
+    updated_at              datetime(6)  not null,
+    primary key (user_uid)
+) engine = InnoDB;
@@ -0,0 +1,4 @@
+-- 프로필(닉네임/email/provider) 변경 번호: /me 조건부 GET의 ETag
+-- change_seq(과목/기록 변경 번호)와 나눠서, 프로필 변경이 과목/기록 ETag·델타 동기화·인사이트 대상에 섞이지 않게 한다
+-- lastLoginAt은 어느 번호도 올리지 않는다 (인증된 요청마다 바뀌므로)
+alter table users add column profile_seq bigint not null default 0;
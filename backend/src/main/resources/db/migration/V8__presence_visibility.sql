@@ -0,0 +1,2 @@
+-- 공부 중 표시 공개 여부: 공개한 사용자만 다른 사용자가 조회/구독할 수 있다 (본인은 항상). 기본은 비공개
+alter table users add column presence_visible bit not null default 0;
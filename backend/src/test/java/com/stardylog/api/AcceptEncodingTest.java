@@ -0,0 +1,32 @@
+package com.stardylog.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @Test
+    void acceptsGzipListedWithoutOrWithAPositiveQuality() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("br, GZIP;q=0.5")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("deflate, *")).isTrue();
+    }
+
+    @Test
+    void zeroQualityRefusesGzip() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("br, gzip; q=0.000")).isFalse();
+        // gzip이 직접 적혀 있으면 "*"보다 우선한다
+        assertThat(AcceptEncoding.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("br, *;q=0")).isFalse();
+    }
+
+    @Test
+    void missingOrUnreadableHeaderRefusesGzip() {
+        assertThat(AcceptEncoding.acceptsGzip(null)).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("identity")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzipx")).isFalse();
+    }
+}
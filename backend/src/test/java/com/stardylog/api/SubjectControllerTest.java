@@ -0,0 +1,173 @@
+package com.stardylog.api;
+
+import com.stardylog.subject.Subject;
+import com.stardylog.subject.SubjectQueryService;
+import com.stardylog.subject.SubjectRepository;
+import com.stardylog.subject.SubjectService;
+import com.stardylog.user.UserRepository;
+import com.stardylog.user.UserVersionTracker;
+import com.stardylog.user.UserVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SubjectControllerTest {
+
+    private static final String UID = "uid-1";
+    private static final Principal AUTH = new UsernamePasswordAuthenticationToken(UID, null, List.of());
+
+    // DB 상태 (users.change_seq, 삭제되지 않은 과목)
+    private final AtomicLong dbVersion = new AtomicLong(1);
+    private final AtomicReference<List<Subject>> dbSubjects = new AtomicReference<>(List.of(subject(1L, "math")));
+
+    private AnnotationConfigApplicationContext context;
+    private SubjectRepository subjectRepository;
+    private SubjectQueryService subjectQueryService;
+    private UserVersionTracker versionTracker;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(CachingConfig.class);
+        subjectRepository = context.getBean(SubjectRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        when(subjectRepository.findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(anyString())).thenAnswer(inv -> dbSubjects.get());
+        when(userRepository.findChangeSeq(anyString())).thenAnswer(inv -> Optional.of(dbVersion.get()));
+        when(userRepository.findVersions(anyString())).thenAnswer(inv -> Optional.of(new UserVersions(dbVersion.get(), 0)));
+
+        subjectQueryService = context.getBean(SubjectQueryService.class);
+        versionTracker = new UserVersionTracker(userRepository, Duration.ofMinutes(1), 1000);
+        mvc = MockMvcBuilders.standaloneSetup(new SubjectController(mock(SubjectService.class), subjectQueryService, versionTracker)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        context.close();
+    }
+
+    @Test
+    void answersNotModifiedFromTheCachedListWithoutReadingAgain() throws Exception {
+        String etag = UserVersionTracker.etag(UID, "subjects", 1);
+
+        mvc.perform(get("/api/subjects").principal(AUTH))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$[0].name").value("math"));
+        mvc.perform(get("/api/subjects").principal(AUTH).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(subjectRepository, times(1)).findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(UID);
+    }
+
+    @Test
+    void reloadsTheCachedListOnceAWriteFromAnotherNodeBecomesVisible() throws Exception {
+        String oldEtag = UserVersionTracker.etag(UID, "subjects", 1);
+        mvc.perform(get("/api/subjects").principal(AUTH)).andExpect(header().string("ETag", oldEtag));
+
+        // 다른 노드의 쓰기: 이 노드의 과목 캐시는 지워지지 않는다
+        dbVersion.set(2);
+        dbSubjects.set(List.of(subject(1L, "math"), subject(2L, "english")));
+        versionTracker.invalidateAfterCommit(UID); // version-ttl이 지난 것과 같다
+
+        mvc.perform(get("/api/subjects").principal(AUTH).header("If-None-Match", oldEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", UserVersionTracker.etag(UID, "subjects", 2)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void etagFollowsTheListThatIsServedWhileALocalWriteCommits() throws Exception {
+        String oldEtag = UserVersionTracker.etag(UID, "subjects", 1);
+        String newEtag = UserVersionTracker.etag(UID, "subjects", 2);
+        mvc.perform(get("/api/subjects").principal(AUTH)).andExpect(header().string("ETag", oldEtag));
+
+        // SubjectService의 쓰기와 같은 순서로 커밋 후 작업을 등록한다 (목록 캐시는 afterCommit, 버전은 afterCompletion)
+        TransactionSynchronizationManager.initSynchronization();
+        dbVersion.set(2);
+        dbSubjects.set(List.of(subject(1L, "physics")));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                subjectQueryService.evict(UID);
+            }
+        });
+        versionTracker.invalidateAfterCommit(UID);
+
+        // 커밋 전: 이전 목록과 이전 ETag
+        mvc.perform(get("/api/subjects").principal(AUTH).header("If-None-Match", oldEtag))
+                .andExpect(status().isNotModified());
+
+        // 목록 캐시만 지워지고 노드의 버전은 아직 이전 값: 새 목록은 새 목록의 버전으로 나간다
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        mvc.perform(get("/api/subjects").principal(AUTH).header("If-None-Match", oldEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", newEtag))
+                .andExpect(jsonPath("$[0].name").value("physics"));
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        mvc.perform(get("/api/subjects").principal(AUTH).header("If-None-Match", newEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    private static Subject subject(Long id, String name) {
+        return Subject.builder().id(id).name(name).color("FF0000").sortOrder(id.intValue()).build();
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(SubjectQueryService.CACHE_NAME);
+        }
+
+        @Bean
+        SubjectRepository subjectRepository() {
+            return mock(SubjectRepository.class);
+        }
+
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        SubjectQueryService subjectQueryService(SubjectRepository subjectRepository, UserRepository userRepository) {
+            return new SubjectQueryService(subjectRepository, userRepository);
+        }
+    }
+}
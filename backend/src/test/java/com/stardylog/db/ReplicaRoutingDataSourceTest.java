@@ -0,0 +1,108 @@
+package com.stardylog.db;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private RecentWriteTracker writeTracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        writeTracker = new RecentWriteTracker(Duration.ofMinutes(1), 100);
+        useReplicas(List.of(replica));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsOfAuthenticatedUsersGoToTheReplica() {
+        signIn("alice");
+
+        assertThat(readOnly.execute(status -> server())).isEqualTo("replica");
+        assertThat(readWrite.execute(status -> server())).isEqualTo("primary");
+        // 트랜잭션 밖 (스케줄러, 마이그레이션 등)
+        assertThat(server()).isEqualTo("primary");
+    }
+
+    @Test
+    void requestsWithoutAUserStayOnThePrimary() {
+        assertThat(readOnly.execute(status -> server())).isEqualTo("primary");
+    }
+
+    @Test
+    void readsRightAfterTheUsersOwnWriteGoToThePrimary() {
+        signIn("alice");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update marker set name = name"));
+
+        assertThat(readOnly.execute(status -> server())).isEqualTo("primary");
+
+        signIn("bob");
+        assertThat(readOnly.execute(status -> server())).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenNoReplicaIsReachable() {
+        JdbcDataSource broken = new JdbcDataSource();
+        broken.setURL("jdbc:h2:tcp://localhost:1/unreachable");
+        useReplicas(List.of(broken));
+        signIn("alice");
+
+        assertThat(readOnly.execute(status -> server())).isEqualTo("primary");
+    }
+
+    private void useReplicas(List<DataSource> replicas) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primary, replicas, writeTracker, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(writeTracker);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("select name from marker", String.class);
+    }
+
+    private static void signIn(String uid) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(uid, "", List.of()));
+    }
+
+    // 어느 DB에서 읽었는지 구분할 수 있도록 이름 한 줄만 넣어 둔다
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table marker (name varchar(20))");
+        jdbc.update("insert into marker (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,85 @@
+package com.stardylog.insights;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import com.stardylog.insights.UserInsightsStore.Pending;
+import com.stardylog.insights.UserInsightsStore.SessionTotal;
+import com.stardylog.log.StudyLogArchiveStore;
+import com.stardylog.log.StudyLogQueryService;
+import com.stardylog.stats.StudyStatsService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InsightsServiceTest {
+
+    private static final String UID = "uid-1";
+    private static final Instant HORIZON = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final UserInsightsStore store = mock(UserInsightsStore.class);
+    private final StudyLogArchiveStore archiveStore = mock(StudyLogArchiveStore.class);
+    private final InsightsService service = newService();
+
+    @Test
+    void firstComputationReadsTheDatabaseOnlyFromTheArchiveHorizon() {
+        when(store.find(UID)).thenReturn(Optional.empty());
+        when(archiveStore.horizon()).thenReturn(HORIZON);
+        doAnswer(inv -> {
+            Predicate<StudyLogResponse> sink = inv.getArgument(3);
+            sink.test(row("s1", 1800, "2024-12-31T01:00:00Z"));
+            return true;
+        }).when(archiveStore).read(eq(UID), eq(StudyLogQueryService.MIN_TIME), eq(HORIZON), any());
+        doAnswer(inv -> {
+            Consumer<StudyLogResponse> consumer = inv.getArgument(4);
+            consumer.accept(row("s2", 600, "2025-01-02T01:00:00Z"));
+            return null;
+        }).when(store).streamChanges(eq(UID), eq(0L), eq(10L), eq(HORIZON), any());
+        when(store.sessionTotals(eq(UID), eq(List.of("s2")), eq(0L), eq(10L), eq(HORIZON)))
+                .thenReturn(List.of(new SessionTotal("s2", false, 600)));
+
+        service.compute(new Pending(UID, 10, 0));
+
+        // 보관 파일과 (DROP 전) DB 파티션에 같이 있는 horizon 이전 기록을 두 번 더하지 않는다
+        ArgumentCaptor<UserInsights> saved = ArgumentCaptor.forClass(UserInsights.class);
+        verify(store).save(saved.capture());
+        assertThat(saved.getValue().getStudySeconds()).isEqualTo(2400);
+        assertThat(saved.getValue().getSessionCount()).isEqualTo(2);
+        assertThat(saved.getValue().getLongestSessionSeconds()).isEqualTo(1800);
+    }
+
+    @Test
+    void withoutArchivesEverythingIsReadFromTheDatabase() {
+        when(store.find(UID)).thenReturn(Optional.empty());
+
+        service.compute(new Pending(UID, 10, 0));
+
+        verify(archiveStore, never()).read(any(), any(), any(), any());
+        verify(store).streamChanges(eq(UID), eq(0L), eq(10L), eq(StudyLogQueryService.MIN_TIME), any());
+    }
+
+    private InsightsService newService() {
+        StudyStatsService statsService = mock(StudyStatsService.class);
+        when(statsService.zone()).thenReturn(ZoneId.of("Asia/Seoul"));
+        return new InsightsService(store, archiveStore, mock(JdbcTemplate.class), statsService, false, 1, 10, 32);
+    }
+
+    private static StudyLogResponse row(String sessionId, int seconds, String start) {
+        Instant startTime = Instant.parse(start);
+        return new StudyLogResponse(null, null, null, sessionId, "STUDY", seconds, startTime, startTime.plusSeconds(seconds));
+    }
+}
@@ -0,0 +1,97 @@
+package com.stardylog.insights;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserInsightsTest {
+
+    private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+
+    @Test
+    void addsStudyAndBreakSeparatelyByLocalHour() {
+        UserInsights insights = new UserInsights("u1");
+
+        // 01:00 UTC = 10:00 서울
+        insights.add(row("STUDY", 3000, "2025-03-01T01:00:00Z"), SEOUL);
+        insights.add(row("BREAK", 600, "2025-03-01T01:50:00Z"), SEOUL);
+        insights.add(row("STUDY", 1200, "2025-03-01T12:00:00Z"), SEOUL);
+
+        assertThat(insights.getStudySeconds()).isEqualTo(4200);
+        assertThat(insights.getBreakSeconds()).isEqualTo(600);
+        assertThat(insights.getStudyIntervals()).isEqualTo(2);
+        assertThat(insights.getBreakIntervals()).isEqualTo(1);
+        assertThat(insights.focusBreakRatio()).isEqualTo(7.0);
+        assertThat(insights.bestHour()).isEqualTo(10);
+        assertThat(insights.getHourStudySeconds()[21]).isEqualTo(1200);
+    }
+
+    @Test
+    void accumulatesSessionsAcrossRuns() {
+        UserInsights insights = new UserInsights("u1");
+        insights.add(row("STUDY", 1800, "2025-03-01T01:00:00Z"), SEOUL);
+        insights.addSessions(1, 1800);
+        insights.add(row("STUDY", 600, "2025-03-02T01:00:00Z"), SEOUL);
+        insights.addSessions(1, 600);
+
+        assertThat(insights.getSessionCount()).isEqualTo(2);
+        assertThat(insights.getLongestSessionSeconds()).isEqualTo(1800);
+        assertThat(insights.averageSessionSeconds()).isEqualTo(1200);
+    }
+
+    @Test
+    void averageSessionIgnoresStudyTimeWithoutASession() {
+        UserInsights insights = new UserInsights("u1");
+        insights.add(row("STUDY", 1800, "2025-03-01T01:00:00Z"), SEOUL);
+        insights.add(new StudyLogResponse(null, null, null, null, "STUDY", 3600,
+                Instant.parse("2025-03-01T05:00:00Z"), Instant.parse("2025-03-01T06:00:00Z")), SEOUL); // 세션 없는 옛 기록
+        insights.addSessions(1, 1800);
+
+        assertThat(insights.getStudySeconds()).isEqualTo(5400);
+        assertThat(insights.averageSessionSeconds()).isEqualTo(1800);
+    }
+
+    @Test
+    void defaultParallelismLeavesConnectionsForRequests() {
+        assertThat(InsightsService.defaultParallelism(10)).isBetween(1, 5);
+        assertThat(InsightsService.defaultParallelism(2)).isEqualTo(1);
+        assertThat(InsightsService.defaultParallelism(1)).isEqualTo(1);
+    }
+
+    @Test
+    void computesStreaksFromStudyDates() {
+        UserInsights insights = new UserInsights("u1");
+
+        insights.updateStreaks(List.of(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 3),
+                LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6)));
+
+        assertThat(insights.getLongestStreakDays()).isEqualTo(3);
+        assertThat(insights.getLastStudyDate()).isEqualTo(LocalDate.of(2025, 3, 6));
+        assertThat(insights.currentStreakDays(LocalDate.of(2025, 3, 6))).isEqualTo(2);
+        assertThat(insights.currentStreakDays(LocalDate.of(2025, 3, 7))).isEqualTo(2);
+        assertThat(insights.currentStreakDays(LocalDate.of(2025, 3, 8))).isZero();
+    }
+
+    @Test
+    void emptyInsightsHaveNoBestHourOrRatio() {
+        UserInsights insights = new UserInsights("u1");
+
+        insights.updateStreaks(List.of());
+
+        assertThat(insights.bestHour()).isNull();
+        assertThat(insights.focusBreakRatio()).isNull();
+        assertThat(insights.currentStreakDays(LocalDate.of(2025, 3, 1))).isZero();
+    }
+
+    private static StudyLogResponse row(String type, int seconds, String start) {
+        Instant startTime = Instant.parse(start);
+        return new StudyLogResponse(null, null, null, "s-1", type, seconds, startTime, startTime.plusSeconds(seconds));
+    }
+}
@@ -0,0 +1,63 @@
+package com.stardylog.log;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class IdempotencyKeyCacheTest {
+
+    private final IdempotencyKeyCache cache = new IdempotencyKeyCache(Duration.ofMinutes(1), 100);
+    private final AtomicInteger ingests = new AtomicInteger();
+
+    @Test
+    void replaysTheStoredResultForTheSameBody() {
+        assertThat(cache.getOrCompute("uid-1", "key", body("a"), ingests::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.getOrCompute("uid-1", "key", body("a"), ingests::incrementAndGet)).isEqualTo(1);
+        assertThat(ingests).hasValue(1);
+    }
+
+    @Test
+    void rejectsAReusedKeyWithADifferentBody() {
+        cache.getOrCompute("uid-1", "key", body("a"), ingests::incrementAndGet);
+
+        assertThatThrownBy(() -> cache.getOrCompute("uid-1", "key", body("b"), ingests::incrementAndGet))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(ingests).hasValue(1);
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        cache.getOrCompute("uid-1", "key", body("a"), ingests::incrementAndGet);
+
+        assertThat(cache.getOrCompute("uid-2", "key", body("b"), ingests::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void anErrorDuringIngestDoesNotLeaveTheKeyPending() {
+        assertThatThrownBy(() -> cache.getOrCompute("uid-1", "key", body("a"), () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        // 같은 키의 다음 요청이 기다리다 멈추지 않는다 (다시 저장하거나 같은 오류로 끝난다)
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            try {
+                cache.getOrCompute("uid-1", "key", body("a"), ingests::incrementAndGet);
+            } catch (CompletionException ignored) {
+            }
+        });
+    }
+
+    private static byte[] body(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
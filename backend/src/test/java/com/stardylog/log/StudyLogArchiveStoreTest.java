@@ -0,0 +1,122 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudyLogArchiveStoreTest {
+
+    private static final Instant JAN = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant FEB = Instant.parse("2025-02-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsOnlyTheRequestedUsersRowsInRange() throws Exception {
+        StudyLogArchiveRepository repository = mock(StudyLogArchiveRepository.class);
+        StudyLogArchiveStore store = new StudyLogArchiveStore(repository, Jackson2ObjectMapperBuilder.json().build(), new FileSystemArchiveStorage(dir), 8);
+
+        String fileName;
+        try (StudyLogArchiveStore.Writer writer = store.newWriter("p202501")) {
+            for (StudyLogResponse row : rows(1, 100)) writer.add("alice", row);
+            for (StudyLogResponse row : rows(1000, 50)) writer.add("bob", row);
+            fileName = writer.commit();
+        }
+        when(repository.findAllByOrderByRangeStartAsc()).thenReturn(List.of(StudyLogArchive.builder()
+                .partitionName("p202501").rangeStart(JAN).rangeEnd(FEB).fileName(fileName).rowCount(150).build()));
+        store.refresh();
+
+        List<StudyLogResponse> bob = new ArrayList<>();
+        store.read("bob", JAN, FEB, bob::add);
+        assertThat(bob).isEqualTo(rows(1000, 50));
+
+        List<StudyLogResponse> aliceFirstDay = new ArrayList<>();
+        store.read("alice", JAN, JAN.plusSeconds(86_400), aliceFirstDay::add);
+        assertThat(aliceFirstDay).isEqualTo(rows(1, 100).subList(0, 24));
+
+        assertThat(store.horizon()).isEqualTo(FEB);
+        assertThat(store.isArchived(JAN.plusSeconds(1))).isTrue();
+        assertThat(store.isArchived(FEB)).isFalse();
+    }
+
+    @Test
+    void rejectsRowsOfOneUserThatAreNotContiguous() throws Exception {
+        StudyLogArchiveStore store = new StudyLogArchiveStore(mock(StudyLogArchiveRepository.class),
+                Jackson2ObjectMapperBuilder.json().build(), new FileSystemArchiveStorage(dir), 8);
+
+        try (StudyLogArchiveStore.Writer writer = store.newWriter("p202501")) {
+            writer.add("alice", rows(1, 1).get(0));
+            writer.add("bob", rows(2, 1).get(0));
+            assertThatThrownBy(() -> writer.add("alice", rows(3, 1).get(0))).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(dir).isEmptyDirectory();
+    }
+
+    @Test
+    void archivingAPartitionAgainWritesANewFileAndKeepsThePublishedOne() throws Exception {
+        StudyLogArchiveRepository repository = mock(StudyLogArchiveRepository.class);
+        StudyLogArchiveStore store = new StudyLogArchiveStore(repository, Jackson2ObjectMapperBuilder.json().build(), new FileSystemArchiveStorage(dir), 8);
+
+        String first;
+        try (StudyLogArchiveStore.Writer writer = store.newWriter("p202501")) {
+            for (StudyLogResponse row : rows(1, 10)) writer.add("alice", row);
+            first = writer.commit();
+        }
+        byte[] published = Files.readAllBytes(dir.resolve(first));
+        Thread.sleep(2); // 파일 이름의 시각(ms)이 달라지도록
+
+        String second;
+        try (StudyLogArchiveStore.Writer writer = store.newWriter("p202501")) {
+            for (StudyLogResponse row : rows(1, 20)) writer.add("alice", row);
+            second = writer.commit();
+        }
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(Files.readAllBytes(dir.resolve(first))).isEqualTo(published);
+        when(repository.findAllByOrderByRangeStartAsc()).thenReturn(List.of(StudyLogArchive.builder()
+                .partitionName("p202501").rangeStart(JAN).rangeEnd(FEB).fileName(second).rowCount(20).build()));
+        store.refresh();
+
+        List<StudyLogResponse> alice = new ArrayList<>();
+        store.read("alice", JAN, FEB, alice::add);
+        assertThat(alice).isEqualTo(rows(1, 20));
+    }
+
+    @Test
+    void fileSystemStorageDoesNotOverwriteAnExistingFile() throws Exception {
+        FileSystemArchiveStorage storage = new FileSystemArchiveStorage(dir);
+        Path local = Files.writeString(Files.createTempFile("archive", ".tmp"), "first");
+        storage.put("p202501-1.ndjson.gz", local);
+
+        Files.writeString(local, "second");
+        assertThatThrownBy(() -> storage.put("p202501-1.ndjson.gz", local)).isInstanceOf(FileAlreadyExistsException.class);
+        assertThat(dir.resolve("p202501-1.ndjson.gz")).hasContent("first");
+        assertThat(dir.resolve("p202501-1.ndjson.gz.tmp")).doesNotExist();
+        Files.delete(local);
+    }
+
+    // 한 시간 간격 기록
+    private static List<StudyLogResponse> rows(long firstId, int count) {
+        List<StudyLogResponse> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Instant start = JAN.plusSeconds(i * 3600L).plusNanos(123_000);
+            rows.add(new StudyLogResponse(firstId + i, 7L, "수학", "session-" + (i / 10),
+                    i % 2 == 0 ? "STUDY" : "BREAK", 1500, start, start.plusSeconds(1500)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,115 @@
+package com.stardylog.log;
+
+import com.stardylog.api.dto.StudyLogRequest;
+import com.stardylog.api.dto.StudyLogResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudyLogBinaryCodecTest {
+
+    @Test
+    void roundTripsRowsAcrossMultipleBlocks() throws Exception {
+        List<StudyLogResponse> rows = rows(StudyLogBinaryCodec.BLOCK_ROWS * 2 + 10);
+
+        List<StudyLogRequest> decoded = StudyLogBinaryCodec.readRequests(new ByteArrayInputStream(encode(rows, true)), 100_000);
+
+        assertThat(decoded).hasSize(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            StudyLogResponse expected = rows.get(i);
+            assertThat(decoded.get(i)).isEqualTo(new StudyLogRequest(expected.subjectName(), expected.sessionId(),
+                    expected.intervalType(), expected.durationSeconds(), expected.startTime(), expected.endTime()));
+        }
+    }
+
+    @Test
+    void isMuchSmallerThanRepeatingStringsPerRow() throws Exception {
+        List<StudyLogResponse> rows = rows(1000);
+
+        assertThat(encode(rows, true).length).isLessThan(rows.size() * 16);
+    }
+
+    @Test
+    void rejectsPayloadOverRowLimit() throws Exception {
+        byte[] payload = encode(rows(20), false);
+
+        assertThatThrownBy(() -> StudyLogBinaryCodec.readRequests(new ByteArrayInputStream(payload), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTruncatedPayloads() throws Exception {
+        byte[] payload = encode(rows(20), true);
+
+        // 끝 표시 직전에서 끊긴 경우, 사전 문자열 중간에서 끊긴 경우
+        for (int length : new int[]{payload.length - 1, 12}) {
+            byte[] truncated = Arrays.copyOf(payload, length);
+            assertThatThrownBy(() -> StudyLogBinaryCodec.readRequests(new ByteArrayInputStream(truncated), 100))
+                    .isInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    void rejectsTrailingData() throws Exception {
+        byte[] payload = encode(rows(3), false);
+        byte[] withTrailer = Arrays.copyOf(payload, payload.length + 1);
+
+        assertThatThrownBy(() -> StudyLogBinaryCodec.readRequests(new ByteArrayInputStream(withTrailer), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOutOfRangeValuesAsMalformed() throws Exception {
+        // 초 단위 블록에 long 범위를 넘는 시작 시각
+        assertThatThrownBy(() -> StudyLogBinaryCodec.readRequests(new ByteArrayInputStream(singleRow(Long.MAX_VALUE / 4, 0)), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        // int로 자르면 작은 값이 되는 사전 인덱스
+        assertThatThrownBy(() -> StudyLogBinaryCodec.readRequests(new ByteArrayInputStream(singleRow(0, (1L << 32) + 1)), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 빈 사전, 초 단위 블록 한 행 (subject 인덱스와 시작 시각만 지정)
+    private static byte[] singleRow(long startSeconds, long subjectIndex) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{'S', 'D', 'L', 1, 0});
+        StudyLogBinaryCodec.writeVarint(out, 1); // 행 수
+        out.write(2);                            // 초 단위
+        for (int i = 0; i < 3; i++) StudyLogBinaryCodec.writeVarint(out, 0); // 사전 3개
+        StudyLogBinaryCodec.writeVarint(out, subjectIndex);
+        StudyLogBinaryCodec.writeVarint(out, 0); // session
+        StudyLogBinaryCodec.writeVarint(out, 0); // type
+        StudyLogBinaryCodec.writeVarint(out, 0); // duration
+        StudyLogBinaryCodec.writeVarint(out, startSeconds << 1); // zigzag (양수)
+        StudyLogBinaryCodec.writeVarint(out, 0); // end
+        StudyLogBinaryCodec.writeVarint(out, 0); // 스트림 끝
+        return out.toByteArray();
+    }
+
+    private static byte[] encode(List<StudyLogResponse> rows, boolean withIds) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StudyLogBinaryCodec.Writer writer = StudyLogBinaryCodec.writer(out, withIds)) {
+            for (StudyLogResponse row : rows) writer.write(row);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<StudyLogResponse> rows(int count) {
+        Instant base = Instant.parse("2025-01-01T00:00:00.123456Z");
+        List<StudyLogResponse> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Instant start = base.plusSeconds(i * 1800L);
+            rows.add(new StudyLogResponse((long) i + 1, (long) (i % 5) + 1, "수학-" + (i % 5), "session-" + (i / 10),
+                    i % 2 == 0 ? "STUDY" : "BREAK", 1500, start, start.plusSeconds(1500)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,123 @@
+package com.stardylog.log;
+
+import com.stardylog.subject.Subject;
+import com.stardylog.user.User;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudyLogBulkWriterTest {
+
+    private final AtomicInteger executedStatements = new AtomicInteger();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:bulk-writer-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Connection counting = countingConnection(h2.getConnection());
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(counting, true));
+        jdbcTemplate.execute("""
+                create table study_logs (
+                    id bigint auto_increment primary key,
+                    user_uid varchar(255), subject_id bigint, subject_name varchar(255), session_id varchar(64),
+                    interval_type varchar(20), duration_seconds int not null,
+                    start_time timestamp(6), end_time timestamp(6), change_version bigint not null,
+                    unique (user_uid, session_id, interval_type, start_time))
+                """);
+        executedStatements.set(0);
+    }
+
+    @Test
+    void writesLogsInBatchesInsteadOfOneStatementPerRow() {
+        StudyLogBulkWriter writer = new StudyLogBulkWriter(jdbcTemplate, 100);
+
+        List<StudyLog> inserted = writer.write(logs(200, 1));
+
+        assertThat(inserted).hasSize(200);
+        assertThat(executedStatements.get()).isEqualTo(3); // INSERT 배치 2번 + 저장 확인 조회 1번
+        assertThat(jdbcTemplate.queryForObject("select count(*) from study_logs", Integer.class)).isEqualTo(200);
+    }
+
+    @Test
+    void ignoresRowsThatAlreadyExistAndReturnsOnlyInsertedOnes() {
+        StudyLogBulkWriter writer = new StudyLogBulkWriter(jdbcTemplate, 100);
+
+        writer.write(logs(10, 1));
+        List<StudyLog> inserted = writer.write(logs(15, 11));
+
+        assertThat(inserted).extracting(StudyLog::getChangeVersion).containsExactly(21L, 22L, 23L, 24L, 25L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from study_logs", Integer.class)).isEqualTo(15);
+    }
+
+    @Test
+    void failsOnErrorsOtherThanDuplicateKeys() {
+        StudyLogBulkWriter writer = new StudyLogBulkWriter(jdbcTemplate, 100);
+        List<StudyLog> logs = logs(3, 1);
+        logs.get(1).setIntervalType("X".repeat(21)); // interval_type varchar(20)
+
+        assertThatThrownBy(() -> writer.write(logs)).isInstanceOf(DataAccessException.class);
+    }
+
+    // 기록마다 firstVersion부터 1씩 증가하는 change_version (StudyLogIngestService가 부여하는 것처럼)
+    private static List<StudyLog> logs(int count, long firstVersion) {
+        User user = User.builder().uid("uid-1").build();
+        Subject math = Subject.builder().id(1L).name("math").build();
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        List<StudyLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            logs.add(StudyLog.builder()
+                    .user(user)
+                    .subject(math)
+                    .sessionId("session-" + (i / 10))
+                    .intervalType(i % 2 == 0 ? "STUDY" : "BREAK")
+                    .durationSeconds(60)
+                    .startTime(base.plusSeconds(i * 60L))
+                    .endTime(base.plusSeconds(i * 60L + 60))
+                    .changeVersion(firstVersion + i)
+                    .build());
+        }
+        return logs;
+    }
+
+    // DB로 실제 전송되는 실행 호출(execute/executeUpdate/executeBatch)만 센다
+    private Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof PreparedStatement ps) {
+                        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) executedStatements.incrementAndGet();
+                                    return invoke(ps, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
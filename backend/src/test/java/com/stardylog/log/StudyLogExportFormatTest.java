@@ -0,0 +1,53 @@
+package com.stardylog.log;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stardylog.api.dto.StudyLogResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudyLogExportFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void writesCsvWithHeaderAndQuotedFields() throws Exception {
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        StudyLogResponse row = new StudyLogResponse(7L, null, "수학, \"심화\"", "s-1", "STUDY", 1500,
+                start, start.plusSeconds(1500));
+
+        String csv = write(StudyLogExportFormat.CSV, true, row);
+
+        assertThat(csv.split("\n")).containsExactly(
+                "user_uid,id,subject_id,subject_name,session_id,interval_type,duration_seconds,start_time,end_time",
+                "u1,7,,\"수학, \"\"심화\"\"\",s-1,STUDY,1500,2025-01-01T00:00:00Z,2025-01-01T00:25:00Z");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        StudyLogResponse first = new StudyLogResponse(1L, 3L, "영어", "s-1", "STUDY", 60, start, start.plusSeconds(60));
+        StudyLogResponse second = new StudyLogResponse(2L, 3L, "영어", "s-1", "BREAK", 60, start.plusSeconds(60), start.plusSeconds(120));
+
+        String[] lines = write(StudyLogExportFormat.NDJSON, false, first, second).split("\n");
+
+        assertThat(lines).hasSize(2);
+        JsonNode node = objectMapper.readTree(lines[1]);
+        assertThat(node.get("id").asLong()).isEqualTo(2L);
+        assertThat(node.get("intervalType").asText()).isEqualTo("BREAK");
+    }
+
+    private String write(StudyLogExportFormat format, boolean withUid, StudyLogResponse... rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StudyLogExportFormat.RowWriter writer = format.open(out, objectMapper, withUid)) {
+            for (StudyLogResponse row : rows) writer.write("u1", row);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
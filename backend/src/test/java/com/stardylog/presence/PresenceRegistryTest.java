@@ -0,0 +1,50 @@
+package com.stardylog.presence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresenceRegistryTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-01T09:00:00Z");
+
+    @Test
+    void heartbeatsOnlyReportSessionChanges() {
+        PresenceRegistry registry = new PresenceRegistry(4);
+
+        assertThat(registry.touch("alice", "s1", T0)).isTrue();
+        assertThat(registry.touch("alice", "s1", T0.plusSeconds(30))).isFalse();
+        assertThat(registry.get("alice").since()).isEqualTo(T0);
+        assertThat(registry.get("alice").lastSeen()).isEqualTo(T0.plusSeconds(30));
+
+        Map<String, PresenceRegistry.Presence> changes = registry.drainChanges();
+        assertThat(changes).containsOnlyKeys("alice");
+        assertThat(registry.drainChanges()).isEmpty();
+
+        // 이전 세션의 종료 이벤트는 무시
+        assertThat(registry.touch("alice", "s2", T0.plusSeconds(60))).isTrue();
+        assertThat(registry.remove("alice", "s1")).isFalse();
+        assertThat(registry.remove("alice", "s2")).isTrue();
+        changes = registry.drainChanges();
+        assertThat(changes).containsEntry("alice", null);
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void expiresUsersWithoutRecentHeartbeats() {
+        PresenceRegistry registry = new PresenceRegistry(4);
+        for (int i = 0; i < 100; i++) {
+            registry.touch("user-" + i, "s", i % 2 == 0 ? T0 : T0.plusSeconds(60));
+        }
+        registry.drainChanges();
+
+        assertThat(registry.expire(T0.plusSeconds(30))).isEqualTo(50);
+        assertThat(registry.size()).isEqualTo(50);
+        assertThat(registry.drainChanges()).hasSize(50).containsValue(null);
+        assertThat(registry.get("user-1")).isNotNull();
+        assertThat(registry.get("user-0")).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.stardylog.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankingTreeTest {
+
+    @Test
+    void ranksMatchAFullSortAfterRandomUpdates() {
+        RankingTree tree = new RankingTree();
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String uid = "user-" + random.nextInt(300);
+            long delta = random.nextInt(3600);
+            tree.add(uid, delta);
+            expected.merge(uid, delta, Long::sum);
+        }
+
+        List<Map.Entry<String, Long>> sorted = expected.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .toList();
+
+        assertThat(tree.size()).isEqualTo(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(tree.rank(sorted.get(i).getKey())).isEqualTo(i + 1);
+        }
+        assertThat(tree.top(10)).containsExactlyElementsOf(sorted.subList(0, 10).stream()
+                .map(e -> new RankingTree.Entry(e.getKey(), e.getValue()))
+                .toList());
+    }
+
+    @Test
+    void tiesAreBrokenByUidAndUnknownUsersHaveNoRank() {
+        RankingTree tree = new RankingTree();
+        tree.set("b", 100);
+        tree.set("a", 100);
+        tree.set("c", 300);
+
+        assertThat(tree.rank("c")).isEqualTo(1);
+        assertThat(tree.rank("a")).isEqualTo(2);
+        assertThat(tree.rank("b")).isEqualTo(3);
+        assertThat(tree.rank("nobody")).isZero();
+        assertThat(tree.top(100)).hasSize(3);
+    }
+}
@@ -0,0 +1,45 @@
+package com.stardylog.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalJwtTokenVerifierTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void verifiesTokensItIssued() throws Exception {
+        LocalJwtTokenVerifier verifier = new LocalJwtTokenVerifier(objectMapper, Duration.ofHours(1));
+
+        VerifiedToken token = verifier.verify(verifier.issue("loadtest-1", "loadtest-1@loadtest.local"));
+
+        assertThat(token.uid()).isEqualTo("loadtest-1");
+        assertThat(token.email()).isEqualTo("loadtest-1@loadtest.local");
+        assertThat(token.provider()).isEqualTo("password");
+        assertThat(token.isExpired(Instant.now())).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedForeignAndExpiredTokens() throws Exception {
+        LocalJwtTokenVerifier verifier = new LocalJwtTokenVerifier(objectMapper, Duration.ofHours(1));
+        String[] parts = verifier.issue("alice", null).split("\\.");
+        String otherPayload = verifier.issue("mallory", null).split("\\.")[1];
+
+        assertThatThrownBy(() -> verifier.verify(parts[0] + "." + otherPayload + "." + parts[2]))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> verifier.verify(new LocalJwtTokenVerifier(objectMapper, Duration.ofHours(1)).issue("alice", null)))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> verifier.verify("not-a-jwt"))
+                .isInstanceOf(InvalidTokenException.class);
+
+        LocalJwtTokenVerifier expiring = new LocalJwtTokenVerifier(objectMapper, Duration.ofSeconds(-1));
+        assertThatThrownBy(() -> expiring.verify(expiring.issue("alice", null)))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.stardylog.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void returnsCachedTokenUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        VerifiedToken token = new VerifiedToken("uid-1", "a@b.c", "google.com", Instant.now().plusSeconds(3600));
+
+        assertThat(cache.get("id-token")).isNull();
+        cache.put("id-token", token);
+
+        assertThat(cache.get("id-token")).isEqualTo(token);
+        assertThat(cache.get("other-token")).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheExpiredToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        cache.put("id-token", new VerifiedToken("uid-1", null, null, Instant.now().minusSeconds(1)));
+
+        assertThat(cache.get("id-token")).isNull();
+    }
+
+    @Test
+    void parsesProviderAndExpiryFromClaims() {
+        Map<String, Object> claims = Map.of(
+                "exp", 1_900_000_000L,
+                "firebase", Map.of("sign_in_provider", "google.com"));
+
+        VerifiedToken token = VerifiedToken.fromClaims("uid-1", "a@b.c", claims);
+
+        assertThat(token.provider()).isEqualTo("google.com");
+        assertThat(token.expiresAt()).isEqualTo(Instant.ofEpochSecond(1_900_000_000L));
+    }
+}
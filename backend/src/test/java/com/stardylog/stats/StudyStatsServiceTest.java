@@ -0,0 +1,52 @@
+package com.stardylog.stats;
+
+import com.stardylog.api.dto.DailyStatResponse;
+import com.stardylog.api.dto.WeeklyStatResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudyStatsServiceTest {
+
+    private final StudyDailyStatRepository statRepository = mock(StudyDailyStatRepository.class);
+    private final StudyStatsService statsService = new StudyStatsService(statRepository, ZoneId.of("Asia/Seoul"));
+
+    @Test
+    void weeklyCoversWholeWeeksAtBothEnds() {
+        // 2025-03-05(수) ~ 2025-03-12(수): 3/3(월) ~ 3/16(일)의 두 주
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        LocalDate lastSunday = LocalDate.of(2025, 3, 16);
+        when(statRepository.findDaily("uid-1", monday, lastSunday)).thenReturn(List.of(
+                day(monday, 100),
+                day(LocalDate.of(2025, 3, 9), 200),
+                day(LocalDate.of(2025, 3, 11), 300),
+                day(LocalDate.of(2025, 3, 15), 400)));
+
+        List<WeeklyStatResponse> weeks = statsService.weekly("uid-1", LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 12));
+
+        verify(statRepository).findDaily("uid-1", monday, lastSunday);
+        assertThat(weeks).extracting(WeeklyStatResponse::weekStart).containsExactly(monday, LocalDate.of(2025, 3, 10));
+        assertThat(weeks).extracting(WeeklyStatResponse::studySeconds).containsExactly(300L, 700L);
+    }
+
+    @Test
+    void weeklyOfAWholeWeekReadsOnlyThatWeek() {
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        LocalDate sunday = LocalDate.of(2025, 3, 9);
+
+        statsService.weekly("uid-1", monday, sunday);
+
+        verify(statRepository).findDaily("uid-1", monday, sunday);
+    }
+
+    private static DailyStatResponse day(LocalDate date, long studySeconds) {
+        return new DailyStatResponse(date, 1L, "math", studySeconds, 0, 1);
+    }
+}
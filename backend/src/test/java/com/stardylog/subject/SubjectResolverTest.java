@@ -0,0 +1,65 @@
+package com.stardylog.subject;
+
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubjectResolverTest {
+
+    private static final String UID = "uid-1";
+
+    private final SubjectRepository subjectRepository = mock(SubjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SubjectResolver resolver = new SubjectResolver(subjectRepository, mock(SubjectQueryService.class),
+            userRepository, mock(ChangeVersionAllocator.class), 100, Duration.ofMinutes(30), true);
+
+    @Test
+    void matchesNamesTheWayTheDatabaseCompares() {
+        when(userRepository.findChangeSeq(UID)).thenReturn(Optional.of(1L));
+        when(subjectRepository.findByUserUidOrderByIdAsc(UID)).thenReturn(List.of(subject(1L, "Math", false)));
+
+        assertThat(resolver.resolve(UID, List.of("math", "MATH"))).isEqualTo(Map.of("math", 1L, "MATH", 1L));
+    }
+
+    @Test
+    void prefersTheSubjectThatIsNotDeleted() {
+        when(userRepository.findChangeSeq(UID)).thenReturn(Optional.of(3L));
+        when(subjectRepository.findByUserUidOrderByIdAsc(UID)).thenReturn(List.of(
+                subject(1L, "Math", false), subject(2L, "math", true)));
+
+        assertThat(resolver.resolve(UID, List.of("Math"))).containsEntry("Math", 1L);
+    }
+
+    @Test
+    void reusesTheCachedNamesUntilChangeSeqMoves() {
+        when(userRepository.findChangeSeq(UID)).thenReturn(Optional.of(1L));
+        when(subjectRepository.findByUserUidOrderByIdAsc(UID)).thenReturn(List.of(subject(1L, "Math", false)));
+
+        resolver.resolve(UID, List.of("Math"));
+        resolver.resolve(UID, List.of("Math"));
+        verify(subjectRepository, times(1)).findByUserUidOrderByIdAsc(UID);
+
+        // 다른 노드에서 과목을 지우고 같은 이름으로 다시 만들었다 (이 노드의 evict는 불리지 않음)
+        when(userRepository.findChangeSeq(UID)).thenReturn(Optional.of(3L));
+        when(subjectRepository.findByUserUidOrderByIdAsc(UID)).thenReturn(List.of(
+                subject(1L, "Math", true), subject(2L, "Math", false)));
+
+        assertThat(resolver.resolve(UID, List.of("Math"))).containsEntry("Math", 2L);
+        verify(subjectRepository, times(2)).findByUserUidOrderByIdAsc(UID);
+    }
+
+    private static Subject subject(long id, String name, boolean deleted) {
+        return Subject.builder().id(id).name(name).deleted(deleted).build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.stardylog.subject;
+
+import com.stardylog.api.dto.SubjectBatchRequest;
+import com.stardylog.api.dto.SubjectRequest;
+import com.stardylog.api.dto.SubjectResponse;
+import com.stardylog.api.dto.SubjectUpdateRequest;
+import com.stardylog.user.ChangeVersionAllocator;
+import com.stardylog.user.User;
+import com.stardylog.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubjectServiceTest {
+
+    private static final String UID = "uid-1";
+
+    private final SubjectRepository subjectRepository = mock(SubjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ChangeVersionAllocator changeVersionAllocator = mock(ChangeVersionAllocator.class);
+    private final SubjectBulkWriter subjectBulkWriter = mock(SubjectBulkWriter.class);
+    private final SubjectService subjectService = new SubjectService(subjectRepository, mock(SubjectQueryService.class),
+            userRepository, changeVersionAllocator, mock(SubjectResolver.class), subjectBulkWriter);
+
+    private List<Subject> active;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization(); // evictAfterCommit 등록용
+        active = new ArrayList<>(List.of(subject(1L, "math", 1), subject(2L, "english", 2), subject(3L, "science", 3)));
+        when(subjectRepository.findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(UID)).thenAnswer(inv -> List.copyOf(active));
+        when(userRepository.findByIdForUpdate(UID)).thenReturn(Optional.of(new User()));
+        when(changeVersionAllocator.allocate(eq(UID), anyInt())).thenReturn(100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void applyBatchLocksTheUserBeforeReadingSubjects() {
+        subjectService.applyBatch(UID, new SubjectBatchRequest(List.of(new SubjectRequest("korean", null)), null, null));
+
+        InOrder order = inOrder(changeVersionAllocator, subjectRepository);
+        order.verify(changeVersionAllocator).allocate(UID, 1);
+        order.verify(subjectRepository).findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(UID);
+    }
+
+    @Test
+    void applyBatchAssignsConsecutiveVersionsAndAppendsNewSubjects() {
+        subjectService.applyBatch(UID, new SubjectBatchRequest(
+                List.of(new SubjectRequest("korean", "FF0000")),
+                List.of(new SubjectUpdateRequest(1L, "math II", null)),
+                List.of(2L)));
+
+        assertThat(active.get(0).getName()).isEqualTo("math II");
+        assertThat(active.get(0).getChangeVersion()).isEqualTo(100L);
+        assertThat(active.get(1).isDeleted()).isTrue();
+        assertThat(active.get(1).getChangeVersion()).isEqualTo(101L);
+        assertThat(active.get(2).getChangeVersion()).isZero(); // 바뀌지 않은 과목은 그대로
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Subject>> created = ArgumentCaptor.forClass(List.class);
+        verify(subjectBulkWriter).insert(eq(UID), created.capture());
+        assertThat(created.getValue()).singleElement().satisfies(s -> {
+            assertThat(s.getName()).isEqualTo("korean");
+            assertThat(s.getSortOrder()).isEqualTo(4);
+            assertThat(s.getChangeVersion()).isEqualTo(102L);
+        });
+    }
+
+    @Test
+    void applyBatchAllowsSwappingNamesOfExistingSubjects() {
+        subjectService.applyBatch(UID, new SubjectBatchRequest(null, List.of(
+                new SubjectUpdateRequest(1L, "english", null),
+                new SubjectUpdateRequest(2L, "math", null)), null));
+
+        assertThat(active.get(0).getName()).isEqualTo("english");
+        assertThat(active.get(1).getName()).isEqualTo("math");
+    }
+
+    @Test
+    void applyBatchRejectsNamesThatWouldCollide() {
+        assertThatThrownBy(() -> subjectService.applyBatch(UID, new SubjectBatchRequest(
+                List.of(new SubjectRequest("science", null)), null, null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void applyBatchComparesNamesCaseInsensitivelyLikeTheDatabase() {
+        assertThatThrownBy(() -> subjectService.applyBatch(UID, new SubjectBatchRequest(
+                List.of(new SubjectRequest("Science", null)), null, null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> subjectService.applyBatch(UID, new SubjectBatchRequest(
+                List.of(new SubjectRequest("korean", null), new SubjectRequest("KOREAN", null)), null, null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void applyBatchRejectsSubjectsOfOtherUsersAndRepeatedIds() {
+        assertThatThrownBy(() -> subjectService.applyBatch(UID, new SubjectBatchRequest(null, null, List.of(99L))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        assertThatThrownBy(() -> subjectService.applyBatch(UID, new SubjectBatchRequest(null,
+                List.of(new SubjectUpdateRequest(1L, "math II", null)), List.of(1L))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void applyBatchWithoutChangesDoesNotAllocate() {
+        List<SubjectResponse> result = subjectService.applyBatch(UID, new SubjectBatchRequest(null, null, null));
+
+        assertThat(result).extracting(SubjectResponse::id).containsExactly(1L, 2L, 3L);
+        verify(changeVersionAllocator, never()).allocate(anyString(), anyInt());
+    }
+
+    @Test
+    void reorderLocksTheUserBeforeReadingSubjects() {
+        subjectService.reorder(UID, List.of(2L, 1L, 3L));
+
+        InOrder order = inOrder(userRepository, subjectRepository, changeVersionAllocator);
+        order.verify(userRepository).findByIdForUpdate(UID);
+        order.verify(subjectRepository).findByUserUidAndDeletedFalseOrderBySortOrderAscIdAsc(UID);
+        order.verify(changeVersionAllocator).allocate(UID, 2);
+    }
+
+    @Test
+    void reorderVersionsOnlyMovedSubjects() {
+        List<SubjectResponse> result = subjectService.reorder(UID, List.of(2L, 1L, 3L));
+
+        assertThat(result).extracting(SubjectResponse::id).containsExactly(2L, 1L, 3L);
+        assertThat(result).extracting(SubjectResponse::sortOrder).containsExactly(1, 2, 3);
+        assertThat(active.get(1).getChangeVersion()).isEqualTo(100L); // english: 2 -> 1
+        assertThat(active.get(0).getChangeVersion()).isEqualTo(101L); // math: 1 -> 2
+        assertThat(active.get(2).getChangeVersion()).isZero();
+    }
+
+    @Test
+    void reorderInTheCurrentOrderDoesNotAllocate() {
+        subjectService.reorder(UID, List.of(1L, 2L, 3L));
+
+        verify(changeVersionAllocator, never()).allocate(anyString(), anyInt());
+    }
+
+    @Test
+    void reorderRejectsAStaleList() {
+        assertThatThrownBy(() -> subjectService.reorder(UID, List.of(2L, 1L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(changeVersionAllocator, never()).allocate(anyString(), anyInt());
+    }
+
+    @Test
+    void reorderOfAMissingUserIsNotFound() {
+        when(userRepository.findByIdForUpdate(UID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> subjectService.reorder(UID, List.of(1L, 2L, 3L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    private static Subject subject(long id, String name, int sortOrder) {
+        return Subject.builder().id(id).name(name).sortOrder(sortOrder).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.stardylog.user;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisplayNameIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DisplayNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:display-names-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("create table users (uid varchar(255) primary key, display_name varchar(255))");
+        jdbcTemplate.update("insert into users values ('u1', 'Tiger'), ('u2', 'tiger1'), ('u3', 'tom'), ('u4', null)");
+        index = new DisplayNameIndex(jdbcTemplate, 1000, 0.01);
+        index.refresh();
+    }
+
+    @Test
+    void answersAvailabilityIgnoringCase() {
+        assertThat(index.isTaken("tiger")).isTrue();
+        assertThat(index.isTaken("TIGER1")).isTrue();
+        assertThat(index.isTaken("lion")).isFalse();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void suggestsNamesThatAreNotTaken() {
+        assertThat(index.suggest("tiger", 3))
+                .hasSize(3)
+                .doesNotContain("tiger1")
+                .allSatisfy(name -> assertThat(index.isTaken(name)).isFalse());
+    }
+
+    @Test
+    void findsNamesByPrefixAndFollowsLocalChanges() {
+        assertThat(index.searchPrefix("ti", 10)).containsExactly("Tiger", "tiger1");
+
+        index.changed("tom", "tiger_king");
+
+        assertThat(index.isTaken("tom")).isFalse();
+        assertThat(index.searchPrefix("T", 10)).containsExactly("Tiger", "tiger1", "tiger_king");
+        assertThat(index.searchPrefix("T", 2)).containsExactly("Tiger", "tiger1");
+    }
+
+    @Test
+    void refreshDropsNamesReleasedOnOtherNodes() {
+        jdbcTemplate.update("update users set display_name = 'lion' where uid = 'u1'");
+
+        index.refresh();
+
+        assertThat(index.isTaken("tiger")).isFalse();
+        assertThat(index.isTaken("lion")).isTrue();
+    }
+}
@@ -0,0 +1,110 @@
+package com.stardylog.user;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LoginTrackerTest {
+
+    private static final String UID = "uid-1";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ChangeVersionAllocator changeVersionAllocator = mock(ChangeVersionAllocator.class);
+    private final LoginTracker tracker = new LoginTracker(userRepository, changeVersionAllocator,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 1000);
+
+    @Test
+    void firstLoginCreatesTheUser() {
+        when(userRepository.findById(UID)).thenReturn(Optional.empty());
+
+        tracker.onAuthenticated(UID, "a@example.com", "google");
+
+        verify(userRepository).save(any(User.class));
+        verifyNoInteractions(changeVersionAllocator);
+    }
+
+    @Test
+    void repeatedLoginsOnlyUpdateLastLoginAtOnFlush() {
+        User user = user("a@example.com", "google");
+        when(userRepository.findById(UID)).thenReturn(Optional.of(user));
+
+        Instant before = Instant.now();
+        tracker.onAuthenticated(UID, "a@example.com", "google");
+        tracker.onAuthenticated(UID, "a@example.com", "google");
+        tracker.onAuthenticated(UID, "a@example.com", "google");
+
+        // 두 번째부터는 DB를 보지 않는다
+        verify(userRepository, times(1)).findById(UID);
+        verify(userRepository, never()).updateLastLoginAt(anyString(), any());
+
+        tracker.flush();
+
+        // 엔티티 저장 없이 last_login_at만 (마지막 로그인 시각으로)
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        verify(userRepository).updateLastLoginAt(eq(UID), at.capture());
+        assertThat(at.getValue()).isAfterOrEqualTo(before);
+        verify(userRepository, never()).save(any());
+        // 로그인 시각은 데이터 버전(change_seq)이나 프로필 버전을 올리지 않는다
+        verifyNoInteractions(changeVersionAllocator);
+        verify(userRepository, never()).incrementChangeSeq(anyString(), anyLong());
+    }
+
+    @Test
+    void flushWithNothingPendingDoesNotTouchTheDatabase() {
+        tracker.flush();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void changedEmailUpdatesOnlyLoginColumnsAndBumpsTheProfileVersion() {
+        User user = user("a@example.com", "google");
+        when(userRepository.findById(UID)).thenReturn(Optional.of(user));
+
+        tracker.onAuthenticated(UID, "a@example.com", "google");
+        tracker.onAuthenticated(UID, "b@example.com", "google");
+
+        // 읽어 둔 엔티티를 저장하지 않으므로 그 사이 바뀐 닉네임을 덮어쓰지 않는다
+        verify(userRepository).updateLogin(eq(UID), eq("b@example.com"), eq("google"), any(Instant.class));
+        verify(userRepository, never()).save(any());
+        verify(changeVersionAllocator).touchProfile(UID);
+    }
+
+    @Test
+    void failedFlushIsRetriedOnTheNextOne() {
+        User user = user("a@example.com", "google");
+        when(userRepository.findById(UID)).thenReturn(Optional.of(user));
+        when(userRepository.updateLastLoginAt(eq(UID), any(Instant.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1);
+
+        tracker.onAuthenticated(UID, "a@example.com", "google");
+        tracker.flush();
+        tracker.flush();
+
+        verify(userRepository, times(2)).updateLastLoginAt(eq(UID), any(Instant.class));
+        tracker.flush();
+        verify(userRepository, times(2)).updateLastLoginAt(eq(UID), any(Instant.class));
+    }
+
+    private static User user(String email, String provider) {
+        return User.builder().uid(UID).email(email).provider(provider).createdAt(Instant.now()).build();
+    }
+}